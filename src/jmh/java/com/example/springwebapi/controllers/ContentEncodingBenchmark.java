@@ -0,0 +1,89 @@
+package com.example.springwebapi.controllers;
+
+import com.example.springwebapi.dtos.UserDTO;
+import com.example.springwebapi.entities.Person;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.HalConfiguration;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.DelegatingLinkRelationProvider;
+import org.springframework.hateoas.server.core.EvoInflectorLinkRelationProvider;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ContentEncodingBenchmark {
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"user", "persons"})
+    private String payload;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private Object value;
+    private byte[] encoded;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+        public long payloadBytes;
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        Jackson2ObjectMapperBuilder builder = switch (format) {
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile();
+            default -> Jackson2ObjectMapperBuilder.json();
+        };
+        ObjectMapper objectMapper = builder.modulesToInstall(new Jackson2HalModule()).handlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(new DelegatingLinkRelationProvider(new EvoInflectorLinkRelationProvider()), CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY, new HalConfiguration(), new DefaultListableBeanFactory())).build();
+        JavaType valueType;
+        if (payload.equals("user")) {
+            value = new UserDTO("user", "********", true, new String[]{"ADMIN", "USER"});
+            valueType = objectMapper.constructType(UserDTO.class);
+        } else {
+            List<EntityModel<Person>> persons = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                Person person = new Person();
+                person.setId(i);
+                person.setUsername("user" + i);
+                person.setFirstName("First" + i);
+                person.setLastName("Last" + i);
+                persons.add(EntityModel.of(person, Link.of("http://localhost:8080/persons/" + i), Link.of("http://localhost:8080/persons/" + i, "person")));
+            }
+            value = CollectionModel.of(persons, Link.of("http://localhost:8080/persons?page=0&size=20"), Link.of("http://localhost:8080/profile/persons", "profile"));
+            valueType = objectMapper.getTypeFactory().constructParametricType(CollectionModel.class, objectMapper.getTypeFactory().constructParametricType(EntityModel.class, Person.class));
+        }
+        writer = objectMapper.writerFor(valueType);
+        reader = objectMapper.readerFor(valueType);
+        encoded = writer.writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    public byte[] serialize(PayloadSize payloadSize) throws IOException {
+        byte[] bytes = writer.writeValueAsBytes(value);
+        payloadSize.payloadBytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public Object deserialize() throws IOException {
+        return reader.readValue(encoded);
+    }
+}
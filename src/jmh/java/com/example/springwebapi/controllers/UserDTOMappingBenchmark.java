@@ -0,0 +1,32 @@
+package com.example.springwebapi.controllers;
+
+import com.example.springwebapi.dtos.UserDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UserDTOMappingBenchmark {
+    @Param({"1", "2", "8"})
+    private int roleCount;
+
+    private UserDetails userDetails;
+
+    @Setup
+    public void setUp() {
+        String[] roles = new String[roleCount];
+        for (int i = 0; i < roleCount; i++) {
+            roles[i] = "ROLE" + i;
+        }
+        userDetails = User.builder().username("user").password("{noop}password").roles(roles).build();
+    }
+
+    @Benchmark
+    public UserDTO toUserDTO() {
+        return UserController.toUserDTO(userDetails);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.springwebapi.security;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.provisioning.JdbcUserDetailsManager;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AuthenticationBenchmark {
+    private static final String USERNAME = "user";
+    private static final String PASSWORD = "password";
+
+    @Param({"4", "10"})
+    private int strength;
+
+    private HikariDataSource dataSource;
+    private JdbcUserDetailsManager userDetailsManager;
+    private DaoAuthenticationProvider authenticationProvider;
+
+    @Setup
+    public void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setDriverClassName("org.h2.Driver");
+        dataSource.setJdbcUrl("jdbc:h2:mem:benchmark-" + strength + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table users (username varchar(50) not null primary key, password varchar(500) not null, enabled boolean not null)");
+        jdbcTemplate.execute("create table authorities (username varchar(50) not null, authority varchar(50) not null)");
+        jdbcTemplate.execute("create unique index ix_auth_username on authorities (username, authority)");
+        userDetailsManager = new JdbcUserDetailsManager(dataSource);
+        UserDetails user = User.builder().username(USERNAME).password("{bcrypt}" + new BCryptPasswordEncoder(strength).encode(PASSWORD)).roles("USER", "ADMIN").build();
+        userDetailsManager.createUser(user);
+        authenticationProvider = new DaoAuthenticationProvider(userDetailsManager);
+        authenticationProvider.setPasswordEncoder(PasswordEncoderFactories.createDelegatingPasswordEncoder());
+    }
+
+    @TearDown
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    @Benchmark
+    public UserDetails loadUserByUsername() {
+        return userDetailsManager.loadUserByUsername(USERNAME);
+    }
+
+    @Benchmark
+    public Authentication authenticate() {
+        return authenticationProvider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated(USERNAME, PASSWORD));
+    }
+}
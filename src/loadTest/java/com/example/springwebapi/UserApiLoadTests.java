@@ -0,0 +1,172 @@
+package com.example.springwebapi;
+
+import com.example.springwebapi.dtos.UserDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class UserApiLoadTests {
+    private static final String ADMIN_USERNAME = "admin";
+    private static final String ADMIN_PASSWORD = "password";
+    private static final String[] USER_ROLES = new String[]{"USER"};
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final List<String> ENDPOINTS = List.of("POST /user", "GET /user/{username}", "PUT /user/{username}", "DELETE /user/{username}", "GET /persons");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final ExecutorService httpExecutor = Executors.newCachedThreadPool();
+    private final HttpClient httpClient = HttpClient.newBuilder().executor(httpExecutor).build();
+    private final String authorization = "Basic " + Base64.getEncoder().encodeToString((ADMIN_USERNAME + ":" + ADMIN_PASSWORD).getBytes(StandardCharsets.UTF_8));
+    private final Map<String, ConcurrentHistogram> histograms = new LinkedHashMap<>();
+    private final Map<String, AtomicLong> errors = new LinkedHashMap<>();
+
+    @AfterEach
+    void tearDown() {
+        httpClient.close();
+        httpExecutor.shutdownNow();
+    }
+
+    @Test
+    void mixedTraffic(TestReporter testReporter) throws Exception {
+        int concurrency = Integer.getInteger("loadTest.concurrency", 16);
+        Duration warmup = Duration.parse(System.getProperty("loadTest.warmup", "PT10S"));
+        Duration duration = Duration.parse(System.getProperty("loadTest.duration", "PT30S"));
+        double tolerance = Double.parseDouble(System.getProperty("loadTest.tolerance", "0.25"));
+        for (String endpoint : ENDPOINTS) {
+            histograms.put(endpoint, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+            errors.put(endpoint, new AtomicLong());
+        }
+
+        // Warm up, then measure with fresh histograms
+        run(concurrency, warmup);
+        histograms.values().forEach(Histogram::reset);
+        errors.values().forEach(counter -> counter.set(0));
+        run(concurrency, duration);
+
+        Map<String, Map<String, Object>> results = new LinkedHashMap<>();
+        histograms.forEach((endpoint, histogram) -> results.put(endpoint, result(histogram, errors.get(endpoint).get(), duration)));
+        File reportFile = new File(System.getProperty("loadTest.reportFile", "build/reports/load-test/results.json"));
+        reportFile.getParentFile().mkdirs();
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(reportFile, results);
+        results.forEach((endpoint, result) -> testReporter.publishEntry(endpoint, result.toString()));
+
+        // Verify no request failed
+        results.forEach((endpoint, result) -> assertThat((long) result.get("errors")).as("errors for %s", endpoint).isZero());
+
+        // Verify against stored baseline
+        File baselineFile = new File(System.getProperty("loadTest.baselineFile", "src/loadTest/resources/load-test-baseline.json"));
+        if (Boolean.getBoolean("loadTest.updateBaseline")) {
+            baselineFile.getParentFile().mkdirs();
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(baselineFile, results);
+            return;
+        }
+        assertThat(baselineFile).as("baseline %s is missing, record it with -PloadTest.updateBaseline=true", baselineFile).exists();
+        Map<?, ?> baseline = objectMapper.readValue(baselineFile, Map.class);
+        List<String> regressions = new ArrayList<>();
+        results.forEach((endpoint, result) -> {
+            if (!(baseline.get(endpoint) instanceof Map<?, ?> expected)) {
+                return;
+            }
+            double p99 = ((Number) result.get("p99Millis")).doubleValue();
+            double expectedP99 = ((Number) expected.get("p99Millis")).doubleValue();
+            if (p99 > expectedP99 * (1 + tolerance)) {
+                regressions.add(endpoint + " p99 " + p99 + " ms exceeds baseline " + expectedP99 + " ms");
+            }
+            double throughput = ((Number) result.get("throughput")).doubleValue();
+            double expectedThroughput = ((Number) expected.get("throughput")).doubleValue();
+            if (throughput < expectedThroughput * (1 - tolerance)) {
+                regressions.add(endpoint + " throughput " + throughput + " req/s is below baseline " + expectedThroughput + " req/s");
+            }
+        });
+        assertThat(regressions).isEmpty();
+    }
+
+    private void run(int concurrency, Duration duration) throws InterruptedException, ExecutionException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int worker = 0; worker < concurrency; worker++) {
+                String prefix = "load_" + worker + "_";
+                workers.add(executor.submit(() -> {
+                    long iteration = 0;
+                    while (System.nanoTime() < deadline) {
+                        iterate(prefix + iteration++);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void iterate(String username) throws IOException, InterruptedException {
+        UserDTO userDTO = new UserDTO(username, "password", true, USER_ROLES);
+        send("POST /user", "POST", "/user", userDTO);
+        send("GET /user/{username}", "GET", "/user/" + username, null);
+        userDTO.enabled = false;
+        send("PUT /user/{username}", "PUT", "/user/" + username, userDTO);
+        send("GET /persons", "GET", "/persons", null);
+        send("DELETE /user/{username}", "DELETE", "/user/" + username, null);
+    }
+
+    private void send(String endpoint, String method, String path, Object body) throws IOException, InterruptedException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).header("Authorization", authorization).header("Accept", "application/json");
+        if (body == null) {
+            builder.method(method, HttpRequest.BodyPublishers.noBody());
+        } else {
+            builder.header("Content-Type", "application/json").method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        }
+        long start = System.nanoTime();
+        HttpResponse<Void> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.discarding());
+        histograms.get(endpoint).recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start), HIGHEST_TRACKABLE_MICROS));
+        if (response.statusCode() >= 300) {
+            errors.get(endpoint).incrementAndGet();
+        }
+    }
+
+    private static Map<String, Object> result(Histogram histogram, long errors, Duration duration) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("count", histogram.getTotalCount());
+        result.put("errors", errors);
+        result.put("throughput", round(histogram.getTotalCount() / (duration.toMillis() / 1000.0)));
+        result.put("p50Millis", round(histogram.getValueAtPercentile(50) / 1000.0));
+        result.put("p99Millis", round(histogram.getValueAtPercentile(99) / 1000.0));
+        result.put("p999Millis", round(histogram.getValueAtPercentile(99.9) / 1000.0));
+        result.put("maxMillis", round(histogram.getMaxValue() / 1000.0));
+        return result;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.springwebapi;
+
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+// AOT processing evaluates bean conditions once at build time. The outcomes are recorded next to the generated code
+// and a start with the generated artifacts fails if the runtime environment would have chosen different beans.
+public class AotConditions implements BeanFactoryInitializationAotProcessor, EnvironmentPostProcessor, Ordered {
+    static final String RESOURCE = "META-INF/spring-web-api/aot-conditions.properties";
+    static final List<Condition> CONDITIONS = List.of(
+            new Condition("spring.threads.virtual.enabled", "true", false),
+            new Condition("app.datasource.replica.jdbc-url", null, false),
+            new Condition("app.users.seed.enabled", "true", true),
+            new Condition("app.security.password-hashing.migration.enabled", "true", true),
+            new Condition("app.security.password-hashing.calibration.enabled", "true", false),
+            new Condition("app.security.authentication-cache.enabled", "true", false),
+            new Condition("app.security.login-throttle.enabled", "true", true)
+    );
+
+    @Override
+    public BeanFactoryInitializationAotContribution processAheadOfTime(ConfigurableListableBeanFactory beanFactory) {
+        String outcomes = record(beanFactory.getBean(Environment.class));
+        return (generationContext, beanFactoryInitializationCode) -> generationContext.getGeneratedFiles().addResourceFile(RESOURCE, outcomes);
+    }
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (!AotDetector.useGeneratedArtifacts()) {
+            return;
+        }
+        ClassPathResource resource = new ClassPathResource(RESOURCE, application.getClassLoader());
+        if (!resource.exists()) {
+            return;
+        }
+        Properties recorded = new Properties();
+        try (InputStream inputStream = resource.getInputStream()) {
+            recorded.load(inputStream);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + RESOURCE, e);
+        }
+        verify(recorded, environment);
+    }
+
+    @Override
+    public int getOrder() {
+        // After the application properties and profiles have been loaded
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+
+    static String record(Environment environment) {
+        return CONDITIONS.stream().map(condition -> condition.property() + "=" + condition.matches(environment) + "\n").collect(Collectors.joining());
+    }
+
+    static void verify(Properties recorded, Environment environment) {
+        List<String> conflicts = new ArrayList<>();
+        for (Condition condition : CONDITIONS) {
+            String built = recorded.getProperty(condition.property());
+            if (built != null && Boolean.parseBoolean(built) != condition.matches(environment)) {
+                conflicts.add(condition.property() + " (" + (Boolean.parseBoolean(built) ? "enabled" : "disabled") + " at build time)");
+            }
+        }
+        if (!conflicts.isEmpty()) {
+            throw new IllegalStateException("Settings fixed by the AOT build differ at runtime: " + String.join(", ", conflicts) + ". Rebuild with -PfastStartup and the intended values, or start without -Dspring.aot.enabled=true");
+        }
+    }
+
+    // Same matching as @ConditionalOnProperty, a null havingValue matches anything but "false"
+    record Condition(String property, String havingValue, boolean matchIfMissing) {
+        boolean matches(Environment environment) {
+            String value = environment.getProperty(property);
+            if (value == null) {
+                return matchIfMissing;
+            }
+            return havingValue == null ? !"false".equalsIgnoreCase(value) : havingValue.equalsIgnoreCase(value);
+        }
+    }
+}
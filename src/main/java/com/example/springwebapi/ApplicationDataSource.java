@@ -1,21 +1,49 @@
 package com.example.springwebapi;
 
+import com.example.springwebapi.diagnostics.StatementCountingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.jdbc.DataSourceBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 
 import javax.sql.DataSource;
 
 @Configuration
 public class ApplicationDataSource {
     @Bean
-    DataSource dataSource() {
-        DataSourceBuilder dataSourceBuilder = DataSourceBuilder.create();
-        dataSourceBuilder.driverClassName("org.postgresql.Driver");
-        dataSourceBuilder.url("jdbc:postgresql://localhost:5432/spring-authentication");
-        dataSourceBuilder.username("postgres");
-        dataSourceBuilder.password("password");
-        return dataSourceBuilder.build();
+    @FlywayDataSource
+    @ConfigurationProperties("app.datasource.primary")
+    HikariDataSource primaryDataSource(ObjectProvider<MeterRegistry> meterRegistry) {
+        return pooledDataSource(meterRegistry);
     }
 
+    @Bean
+    @ConditionalOnProperty("app.datasource.replica.jdbc-url")
+    @ConfigurationProperties("app.datasource.replica")
+    HikariDataSource replicaDataSource(ObjectProvider<MeterRegistry> meterRegistry) {
+        return pooledDataSource(meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource, @Qualifier("replicaDataSource") ObjectProvider<HikariDataSource> replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        replicaDataSource.ifAvailable(dataSource::setReadOnlyDataSource);
+        return new StatementCountingDataSource(dataSource);
+    }
+
+    private static HikariDataSource pooledDataSource(ObjectProvider<MeterRegistry> meterRegistry) {
+        HikariDataSource dataSource = DataSourceBuilder.create().type(HikariDataSource.class).build();
+        meterRegistry.ifAvailable(registry -> dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+        return dataSource;
+    }
 }
@@ -0,0 +1,18 @@
+package com.example.springwebapi;
+
+import com.example.springwebapi.audit.AuditLog;
+import com.example.springwebapi.repositories.AuditEventJdbcRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class AuditConfig {
+    @Bean
+    public AuditLog auditLog(AuditEventJdbcRepository auditEventJdbcRepository, @Value("${app.audit.queue-capacity:10000}") int queueCapacity, @Value("${app.audit.batch-size:500}") int batchSize, @Value("${app.audit.shutdown-timeout:10s}") Duration shutdownTimeout, MeterRegistry meterRegistry) {
+        return new AuditLog(auditEventJdbcRepository, queueCapacity, batchSize, shutdownTimeout, meterRegistry);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.springwebapi;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.rest.webmvc.config.RepositoryRestConfigurer;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.util.List;
+
+@Configuration
+public class ContentNegotiationConfig {
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        return new MappingJackson2CborHttpMessageConverter(objectMapperBuilder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        return new MappingJackson2SmileHttpMessageConverter(objectMapperBuilder.factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    public RepositoryRestConfigurer binaryRepositoryRestConfigurer() {
+        return new RepositoryRestConfigurer() {
+            @Override
+            public void configureHttpMessageConverters(List<HttpMessageConverter<?>> messageConverters) {
+                ObjectMapper halObjectMapper = messageConverters.stream()
+                        .filter(MappingJackson2HttpMessageConverter.class::isInstance)
+                        .map(MappingJackson2HttpMessageConverter.class::cast)
+                        .filter(converter -> converter.getSupportedMediaTypes().contains(MediaTypes.HAL_JSON))
+                        .findFirst()
+                        .map(MappingJackson2HttpMessageConverter::getObjectMapper)
+                        .orElseThrow(() -> new IllegalStateException("No HAL message converter registered"));
+                messageConverters.add(new MappingJackson2CborHttpMessageConverter(halObjectMapper.copyWith(new CBORFactory())));
+                messageConverters.add(new MappingJackson2SmileHttpMessageConverter(halObjectMapper.copyWith(new SmileFactory())));
+            }
+        };
+    }
+}
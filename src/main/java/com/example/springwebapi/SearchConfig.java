@@ -0,0 +1,27 @@
+package com.example.springwebapi;
+
+import com.example.springwebapi.search.PersonSearchIndex;
+import com.example.springwebapi.search.PersonSearchIndexLoader;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class SearchConfig {
+    @Bean
+    public PersonSearchIndex personSearchIndex(@Value("${app.persons.search.memory-budget:64MB}") DataSize memoryBudget, MeterRegistry meterRegistry) {
+        return new PersonSearchIndex(memoryBudget.toBytes(), meterRegistry);
+    }
+
+    @Bean
+    public PersonSearchIndexLoader personSearchIndexLoader(PersonSearchIndex personSearchIndex, DataSource dataSource, TransactionTemplate transactionTemplate, @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor, @Value("${app.persons.search.fetch-size:1000}") int fetchSize) {
+        return new PersonSearchIndexLoader(personSearchIndex, dataSource, transactionTemplate, taskExecutor, fetchSize);
+    }
+}
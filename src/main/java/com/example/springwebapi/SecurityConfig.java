@@ -1,37 +1,87 @@
 package com.example.springwebapi;
 
+import com.example.springwebapi.repositories.UserEntityCache;
+import com.example.springwebapi.repositories.UserJdbcRepository;
+import com.example.springwebapi.security.AccessTokenAuthentication;
+import com.example.springwebapi.security.AccessTokenAuthenticationFilter;
+import com.example.springwebapi.security.AccessTokenService;
+import com.example.springwebapi.security.AuthenticationCache;
+import com.example.springwebapi.security.BCryptCalibration;
+import com.example.springwebapi.security.BoundedPasswordEncoder;
+import com.example.springwebapi.security.CachingAuthenticationProvider;
+import com.example.springwebapi.security.LoginThrottle;
+import com.example.springwebapi.security.LoginThrottlingFilter;
+import com.example.springwebapi.security.MigratingAuthenticationProvider;
+import com.example.springwebapi.security.PasswordHashMigration;
+import com.example.springwebapi.security.PasswordHashingUnavailableFilter;
+import com.example.springwebapi.security.SemaphorePasswordEncoder;
+import com.example.springwebapi.security.TransactionalJdbcUserDetailsManager;
+import com.example.springwebapi.security.UserSeeder;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.AuthenticationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.security.provisioning.JdbcUserDetailsManager;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.security.provisioning.UserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import org.springframework.security.web.context.SecurityContextHolderFilter;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
-        http.cors(cors -> cors.configurationSource(corsConfigurationSource())).csrf(AbstractHttpConfigurer::disable).authorizeHttpRequests((authorize) -> authorize.anyRequest().authenticated()).httpBasic(Customizer.withDefaults()).formLogin(Customizer.withDefaults());
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, AuthenticationManager authenticationManager, AccessTokenService accessTokenService, ObjectProvider<LoginThrottle> loginThrottle) throws Exception {
+        loginThrottle.ifAvailable(throttle -> http.addFilterBefore(new LoginThrottlingFilter(throttle), SecurityContextHolderFilter.class));
+        http.authenticationManager(authenticationManager).addFilterBefore(new PasswordHashingUnavailableFilter(), UsernamePasswordAuthenticationFilter.class).addFilterBefore(new AccessTokenAuthenticationFilter(accessTokenService), BasicAuthenticationFilter.class).cors(cors -> cors.configurationSource(corsConfigurationSource())).csrf(AbstractHttpConfigurer::disable).authorizeHttpRequests((authorize) -> authorize.dispatcherTypeMatchers(DispatcherType.ERROR).permitAll().requestMatchers("/audit/**").hasRole("ADMIN").requestMatchers(HttpMethod.POST, "/token").access(SecurityConfig::credentialsAuthentication).anyRequest().authenticated()).httpBasic(Customizer.withDefaults()).formLogin(Customizer.withDefaults());
         return http.build();
     }
 
+    // Tokens are only issued for a username and password, so a token holder cannot renew a token indefinitely
+    private static AuthorizationDecision credentialsAuthentication(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        Authentication current = authentication.get();
+        return new AuthorizationDecision(current != null && current.isAuthenticated() && !(current instanceof AccessTokenAuthentication) && !(current instanceof AnonymousAuthenticationToken));
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
@@ -49,29 +99,75 @@ public class SecurityConfig {
     }
 
     @Bean
-    public UserDetailsManager userDetailsManager(DataSource dataSource) {
-        JdbcUserDetailsManager userDetailsManager = new JdbcUserDetailsManager(dataSource);
-        if (!userDetailsManager.userExists("user")) {
-            UserDetails user = User.builder().disabled(false).username("user").password("{bcrypt}$2a$10$GRLdNijSQMUvl/au9ofL.eDwmoohzzS7.rmNSJZ.0FxO/BTk76klW").roles("USER").build();
-            userDetailsManager.createUser(user);
-        }
-        if (!userDetailsManager.userExists("admin")) {
-            UserDetails admin = User.builder().username("admin").password("{bcrypt}$2a$10$GRLdNijSQMUvl/au9ofL.eDwmoohzzS7.rmNSJZ.0FxO/BTk76klW").roles("USER", "ADMIN").build();
-            userDetailsManager.createUser(admin);
-        }
-        return userDetailsManager;
+    public UserDetailsManager userDetailsManager(DataSource dataSource, TransactionTemplate transactionTemplate, MeterRegistry meterRegistry) {
+        return new TransactionalJdbcUserDetailsManager(dataSource, transactionTemplate, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.users.seed.enabled", havingValue = "true", matchIfMissing = true)
+    public UserSeeder userSeeder(UserJdbcRepository userJdbcRepository, @Value("${app.users.seed.async:false}") boolean async, @Qualifier("applicationTaskExecutor") ObjectProvider<TaskExecutor> taskExecutor) {
+        UserDetails user = User.builder().disabled(false).username("user").password("{bcrypt}$2a$10$GRLdNijSQMUvl/au9ofL.eDwmoohzzS7.rmNSJZ.0FxO/BTk76klW").roles("USER").build();
+        UserDetails admin = User.builder().username("admin").password("{bcrypt}$2a$10$GRLdNijSQMUvl/au9ofL.eDwmoohzzS7.rmNSJZ.0FxO/BTk76klW").roles("USER", "ADMIN").build();
+        return new UserSeeder(userJdbcRepository, List.of(user, admin), async ? taskExecutor.getIfAvailable() : null);
+    }
+
+    @Bean
+    public AuthenticationManager authenticationManager(UserDetailsService userDetailsService, PasswordEncoder passwordEncoder, ObjectProvider<AuthenticationCache> authenticationCache, ObjectProvider<PasswordHashMigration> passwordHashMigration, AuthenticationEventPublisher authenticationEventPublisher) {
+        DaoAuthenticationProvider authenticationProvider = new MigratingAuthenticationProvider(userDetailsService, passwordEncoder, passwordHashMigration.getIfAvailable());
+
+        AuthenticationCache cache = authenticationCache.getIfAvailable();
+        ProviderManager providerManager = cache != null ? new ProviderManager(new CachingAuthenticationProvider(authenticationProvider, cache)) : new ProviderManager(authenticationProvider);
+        providerManager.setAuthenticationEventPublisher(authenticationEventPublisher);
+        return providerManager;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.security.password-hashing.migration.enabled", havingValue = "true", matchIfMissing = true)
+    public PasswordHashMigration passwordHashMigration(UserJdbcRepository userJdbcRepository, UserEntityCache userEntityCache, PasswordEncoder passwordEncoder, @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor, @Value("${app.security.password-hashing.migration.fetch-size:1000}") int fetchSize, MeterRegistry meterRegistry) {
+        return new PasswordHashMigration(userJdbcRepository, userEntityCache, passwordEncoder, taskExecutor, fetchSize, meterRegistry);
     }
 
     @Bean
-    public AuthenticationManager authenticationManager(UserDetailsService userDetailsService, PasswordEncoder passwordEncoder) {
-        DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider(userDetailsService);
-        authenticationProvider.setPasswordEncoder(passwordEncoder);
+    @ConditionalOnProperty(name = "app.security.password-hashing.calibration.enabled", havingValue = "true")
+    public BCryptCalibration bcryptCalibration(@Value("${app.security.password-hashing.bcrypt.strength:10}") int bcryptStrength, @Value("${app.security.password-hashing.calibration.latency-budget:250ms}") Duration latencyBudget, @Value("${app.security.password-hashing.calibration.min-strength:10}") int minStrength, @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor, MeterRegistry meterRegistry) {
+        return new BCryptCalibration(bcryptStrength, latencyBudget, minStrength, taskExecutor, meterRegistry);
+    }
 
-        return new ProviderManager(authenticationProvider);
+    @Bean
+    @ConditionalOnProperty(name = "app.security.authentication-cache.enabled", havingValue = "true")
+    public AuthenticationCache authenticationCache(@Value("${app.security.authentication-cache.maximum-size:10000}") long maximumSize, @Value("${app.security.authentication-cache.ttl:5m}") Duration timeToLive, MeterRegistry meterRegistry) {
+        return new AuthenticationCache(maximumSize, timeToLive, meterRegistry);
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+    @ConditionalOnProperty(name = "app.security.login-throttle.enabled", havingValue = "true", matchIfMissing = true)
+    public LoginThrottle loginThrottle(@Value("${app.security.login-throttle.username.capacity:10}") int usernameCapacity, @Value("${app.security.login-throttle.username.refill:1m}") Duration usernameRefill, @Value("${app.security.login-throttle.address.capacity:100}") int addressCapacity, @Value("${app.security.login-throttle.address.refill:1m}") Duration addressRefill, @Value("${app.security.login-throttle.maximum-keys:100000}") long maximumKeys, MeterRegistry meterRegistry) {
+        return new LoginThrottle(usernameCapacity, usernameRefill, addressCapacity, addressRefill, maximumKeys, meterRegistry);
+    }
+
+    @Bean
+    public AccessTokenService accessTokenService(@Value("${app.security.token.secret:}") String secret, @Value("${app.security.token.ttl:15m}") Duration timeToLive) {
+        return new AccessTokenService(secret, timeToLive);
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder(@Value("${app.security.password-hashing.threads:0}") int threads, @Value("${app.security.password-hashing.queue-capacity:64}") int queueCapacity, @Value("${app.security.password-hashing.algorithm:bcrypt}") String algorithm, @Value("${app.security.password-hashing.bcrypt.strength:10}") int bcryptStrength, MeterRegistry meterRegistry, Environment environment) {
+        if (threads <= 0) {
+            threads = Runtime.getRuntime().availableProcessors();
+        }
+        PasswordEncoder delegate = delegatingPasswordEncoder(algorithm, bcryptStrength);
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return new SemaphorePasswordEncoder(delegate, threads, queueCapacity, meterRegistry);
+        }
+        return new BoundedPasswordEncoder(delegate, threads, queueCapacity, meterRegistry);
+    }
+
+    private static PasswordEncoder delegatingPasswordEncoder(String algorithm, int bcryptStrength) {
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", new BCryptPasswordEncoder(bcryptStrength));
+        encoders.put("pbkdf2@SpringSecurity_v5_8", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        DelegatingPasswordEncoder delegatingPasswordEncoder = new DelegatingPasswordEncoder(algorithm, encoders);
+        delegatingPasswordEncoder.setDefaultPasswordEncoderForMatches(PasswordEncoderFactories.createDelegatingPasswordEncoder());
+        return delegatingPasswordEncoder;
     }
 }
@@ -0,0 +1,145 @@
+package com.example.springwebapi.audit;
+
+import com.example.springwebapi.dtos.AuditEventDTO;
+import com.example.springwebapi.repositories.AuditEventJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.event.AuthenticationFailureBadCredentialsEvent;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class AuditLog implements SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(AuditLog.class);
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+    // audit_event.actor and audit_event.target are varchar(50), and the actor of a failed login is whatever the client sent
+    private static final int MAX_NAME_LENGTH = 50;
+    private final AuditEventJdbcRepository auditEventJdbcRepository;
+    private final BlockingQueue<AuditEventDTO> queue;
+    private final int batchSize;
+    private final Duration shutdownTimeout;
+    private final Counter batched;
+    private final Counter direct;
+    private final Counter failed;
+    private volatile boolean running;
+    private Thread writer;
+
+    public AuditLog(AuditEventJdbcRepository auditEventJdbcRepository, int queueCapacity, int batchSize, Duration shutdownTimeout, MeterRegistry meterRegistry) {
+        this.auditEventJdbcRepository = auditEventJdbcRepository;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.shutdownTimeout = shutdownTimeout;
+        this.batched = Counter.builder("audit.events.written").tag("mode", "batched").register(meterRegistry);
+        this.direct = Counter.builder("audit.events.written").tag("mode", "direct").register(meterRegistry);
+        this.failed = Counter.builder("audit.events.failed").register(meterRegistry);
+        Gauge.builder("audit.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    public void record(String action, String target) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        record(authentication != null ? authentication.getName() : null, action, target);
+    }
+
+    public void record(String actor, String action, String target) {
+        AuditEventDTO event = new AuditEventDTO(null, Instant.now(), truncate(actor), action, truncate(target));
+        if (running && queue.offer(event)) {
+            return;
+        }
+        write(List.of(event), direct);
+    }
+
+    @EventListener
+    public void onAuthenticationFailure(AuthenticationFailureBadCredentialsEvent event) {
+        record(event.getAuthentication().getName(), AuditEventDTO.LOGIN_FAILED, null);
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        writer = new Thread(this::drain, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.join(shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer = null;
+        List<AuditEventDTO> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            write(remaining, direct);
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private void drain() {
+        List<AuditEventDTO> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditEventDTO event = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (event == null) {
+                    continue;
+                }
+                batch.add(event);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch, batched);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void write(List<AuditEventDTO> events, Counter written) {
+        try {
+            auditEventJdbcRepository.insertAll(events);
+            written.increment(events.size());
+        } catch (RuntimeException e) {
+            if (events.size() == 1) {
+                failed.increment();
+                logger.error("Failed to write audit event {} {}", events.get(0).action, events.get(0).target, e);
+                return;
+            }
+            // Retry row by row so one bad event does not drop the rest of the batch
+            logger.warn("Failed to write {} audit events as a batch, retrying one by one", events.size(), e);
+            for (AuditEventDTO event : events) {
+                write(List.of(event), written);
+            }
+        }
+    }
+
+    private static String truncate(String name) {
+        return name == null || name.length() <= MAX_NAME_LENGTH ? name : name.substring(0, MAX_NAME_LENGTH);
+    }
+}
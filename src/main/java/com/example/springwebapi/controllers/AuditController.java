@@ -0,0 +1,24 @@
+package com.example.springwebapi.controllers;
+
+import com.example.springwebapi.dtos.AuditEventDTO;
+import com.example.springwebapi.repositories.AuditEventJdbcRepository;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+public class AuditController {
+    private static final int MAX_LIMIT = 500;
+    private final AuditEventJdbcRepository auditEventJdbcRepository;
+
+    public AuditController(AuditEventJdbcRepository auditEventJdbcRepository) {
+        this.auditEventJdbcRepository = auditEventJdbcRepository;
+    }
+
+    @GetMapping("/audit/events")
+    List<AuditEventDTO> getAuditEvents(@RequestParam(required = false) String actor, @RequestParam(required = false) String target, @RequestParam(defaultValue = "50") int limit) {
+        return auditEventJdbcRepository.findRecent(actor, target, Math.clamp(limit, 1, MAX_LIMIT));
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.springwebapi.controllers;
+
+import com.example.springwebapi.entities.Person;
+import com.example.springwebapi.repositories.PersonRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.rest.webmvc.PersistentEntityResource;
+import org.springframework.data.rest.webmvc.PersistentEntityResourceAssembler;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+@RepositoryRestController
+public class PersonBinaryController {
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    private final PersonRepository personRepository;
+    private final PagedResourcesAssembler<Object> pagedResourcesAssembler;
+
+    public PersonBinaryController(PersonRepository personRepository, PagedResourcesAssembler<Object> pagedResourcesAssembler) {
+        this.personRepository = personRepository;
+        this.pagedResourcesAssembler = pagedResourcesAssembler;
+    }
+
+    @GetMapping(path = "/persons", produces = {MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    ResponseEntity<PagedModel<PersistentEntityResource>> getPersons(Pageable pageable, PersistentEntityResourceAssembler assembler) {
+        return ResponseEntity.ok(pagedResourcesAssembler.toModel(personRepository.findAll(pageable).map(Object.class::cast), assembler));
+    }
+
+    @GetMapping(path = "/persons/{id}", produces = {MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    ResponseEntity<PersistentEntityResource> getPerson(@PathVariable long id, PersistentEntityResourceAssembler assembler) {
+        // Same strong ETag as the JSON representation, If-None-Match is answered with 304 before the body is written
+        return personRepository.findById(id).map(person -> ResponseEntity.ok().eTag(String.valueOf(person.getVersion())).body(assembler.toModel(person))).orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
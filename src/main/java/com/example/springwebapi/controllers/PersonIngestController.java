@@ -0,0 +1,151 @@
+package com.example.springwebapi.controllers;
+
+import com.example.springwebapi.dtos.PersonIngestResultDTO;
+import com.example.springwebapi.entities.Person;
+import com.example.springwebapi.exceptions.PersonDataInvalid;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+@RepositoryRestController
+public class PersonIngestController {
+    private static final String CSV_HEADER = "username,firstName,lastName";
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public PersonIngestController(ObjectMapper objectMapper, TransactionTemplate transactionTemplate, @Value("${app.persons.ingest.chunk-size:1000}") int chunkSize) {
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+    }
+
+    @PostMapping(path = "/persons/bulk", consumes = "application/json")
+    @ResponseBody
+    PersonIngestResultDTO ingestJson(InputStream body) throws IOException {
+        List<Person> chunk = new ArrayList<>(chunkSize);
+        long created = 0;
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new PersonDataInvalid("Persons must be a JSON array");
+            }
+            for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new PersonDataInvalid("Expected a person object at row " + (created + chunk.size() + 1), created, null);
+                }
+                chunk.add(objectMapper.readValue(parser, Person.class));
+                if (chunk.size() == chunkSize) {
+                    created += persistChunk(chunk);
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new PersonDataInvalid("Persons could not be parsed at row " + (created + chunk.size() + 1), created, e);
+        }
+        created += persistChunk(chunk);
+        return new PersonIngestResultDTO(created, null);
+    }
+
+    @PostMapping(path = "/persons/bulk", consumes = "text/csv")
+    @ResponseBody
+    PersonIngestResultDTO ingestCsv(InputStream body) throws IOException {
+        List<Person> chunk = new ArrayList<>(chunkSize);
+        long created = 0;
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line = reader.readLine();
+        if (line != null && line.strip().equalsIgnoreCase(CSV_HEADER)) {
+            line = reader.readLine();
+        }
+        for (; line != null; line = reader.readLine()) {
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> values = parseCsvLine(line);
+            if (values.size() != 3) {
+                throw new PersonDataInvalid("Expected " + CSV_HEADER + " at row " + (created + chunk.size() + 1), created, null);
+            }
+            Person person = new Person();
+            person.setUsername(emptyToNull(values.get(0)));
+            person.setFirstName(emptyToNull(values.get(1)));
+            person.setLastName(emptyToNull(values.get(2)));
+            chunk.add(person);
+            if (chunk.size() == chunkSize) {
+                created += persistChunk(chunk);
+            }
+        }
+        created += persistChunk(chunk);
+        return new PersonIngestResultDTO(created, null);
+    }
+
+    private int persistChunk(List<Person> chunk) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Person person : chunk) {
+                person.setId(0);
+                entityManager.persist(person);
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+        int size = chunk.size();
+        chunk.clear();
+        return size;
+    }
+
+    private static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    // Earlier chunks are already committed, so the error carries how many persons were created before it
+    @ExceptionHandler(PersonDataInvalid.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ResponseBody
+    PersonIngestResultDTO handlePersonDataInvalid(PersonDataInvalid e) {
+        return new PersonIngestResultDTO(e.getCreated(), e.getLocalizedMessage());
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.springwebapi.controllers;
+
+import com.example.springwebapi.entities.Person;
+import com.example.springwebapi.exceptions.CursorInvalid;
+import com.example.springwebapi.exceptions.SortInvalid;
+import com.example.springwebapi.repositories.PersonRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.*;
+import org.springframework.data.rest.webmvc.PersistentEntityResourceAssembler;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.util.*;
+
+@RepositoryRestController
+public class PersonScrollController {
+    private static final Set<String> SORT_PROPERTIES = Set.of("id", "username");
+    private static final int MAX_SIZE = 1000;
+    private final PersonRepository personRepository;
+    private final ObjectMapper objectMapper;
+
+    public PersonScrollController(PersonRepository personRepository, ObjectMapper objectMapper) {
+        this.personRepository = personRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping(path = "/persons/scroll", produces = {MediaTypes.HAL_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, PersonBinaryController.APPLICATION_SMILE_VALUE})
+    ResponseEntity<CollectionModel<?>> scrollPersons(@RequestParam(required = false) String after, @RequestParam(defaultValue = "id") String sort, @RequestParam(defaultValue = "20") int size, PersistentEntityResourceAssembler assembler) {
+        if (!SORT_PROPERTIES.contains(sort)) {
+            throw new SortInvalid("Sort property " + sort + " is not supported");
+        }
+        Limit limit = Limit.of(Math.clamp(size, 1, MAX_SIZE));
+        ScrollPosition position = after == null ? ScrollPosition.keyset() : decodeCursor(after, sort);
+        Window<Person> window = sort.equals("username") ? scrollByUsername((KeysetScrollPosition) position, limit) : personRepository.findBy(position, Sort.by(sort), limit);
+        List<Link> links = new ArrayList<>();
+        links.add(Link.of(ServletUriComponentsBuilder.fromCurrentRequest().build().toUriString(), IanaLinkRelations.SELF));
+        if (window.hasNext() && !window.isEmpty()) {
+            String cursor = encodeCursor((KeysetScrollPosition) window.positionAt(window.size() - 1));
+            links.add(Link.of(ServletUriComponentsBuilder.fromCurrentRequest().replaceQueryParam("after", cursor).build().toUriString(), IanaLinkRelations.NEXT));
+        }
+        return ResponseEntity.ok(CollectionModel.of(window.getContent().stream().map(assembler::toModel).toList(), links));
+    }
+
+    // Derived keyset queries compare with username > null, so usernames are scrolled with explicit nulls last queries
+    private Window<Person> scrollByUsername(KeysetScrollPosition position, Limit limit) {
+        Limit lookahead = Limit.of(limit.max() + 1);
+        List<Person> persons;
+        if (position.isInitial()) {
+            persons = personRepository.findOrderByUsername(lookahead);
+        } else if (position.getKeys().get("username") instanceof String username) {
+            persons = personRepository.findOrderByUsernameAfter(username, (Long) position.getKeys().get("id"), lookahead);
+        } else {
+            persons = personRepository.findOrderByUsernameAfterNull((Long) position.getKeys().get("id"), lookahead);
+        }
+        List<Person> content = persons.subList(0, Math.min(persons.size(), limit.max()));
+        return Window.from(content, index -> {
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put("username", content.get(index).getUsername());
+            keys.put("id", content.get(index).getId());
+            return ScrollPosition.forward(keys);
+        }, persons.size() > limit.max());
+    }
+
+    private String encodeCursor(KeysetScrollPosition position) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(position.getKeys()));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private ScrollPosition decodeCursor(String cursor, String sort) {
+        Map<String, Object> keys;
+        try {
+            keys = objectMapper.readValue(Base64.getUrlDecoder().decode(cursor), new TypeReference<>() {
+            });
+        } catch (IllegalArgumentException | IOException e) {
+            throw new CursorInvalid("Cursor " + cursor + " is invalid", e);
+        }
+        boolean sortKeyValid = sort.equals("id") || keys.containsKey(sort) && (keys.get(sort) == null || keys.get(sort) instanceof String);
+        if (!(keys.get("id") instanceof Number id) || !sortKeyValid) {
+            throw new CursorInvalid("Cursor " + cursor + " does not match sort " + sort);
+        }
+        keys.put("id", id.longValue());
+        return ScrollPosition.forward(keys);
+    }
+
+    @ExceptionHandler(SortInvalid.class)
+    @ResponseStatus(org.springframework.http.HttpStatus.BAD_REQUEST)
+    @ResponseBody
+    String handleSortInvalid(SortInvalid e) {
+        return e.getLocalizedMessage();
+    }
+
+    @ExceptionHandler(CursorInvalid.class)
+    @ResponseStatus(org.springframework.http.HttpStatus.BAD_REQUEST)
+    @ResponseBody
+    String handleCursorInvalid(CursorInvalid e) {
+        return e.getLocalizedMessage();
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.springwebapi.controllers;
+
+import com.example.springwebapi.dtos.PersonSearchResultDTO;
+import com.example.springwebapi.repositories.PersonRepository;
+import com.example.springwebapi.search.PersonSearchIndex;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.List;
+
+@RepositoryRestController
+public class PersonSearchController {
+    private static final int MAX_LIMIT = 100;
+    private final PersonSearchIndex personSearchIndex;
+    private final PersonRepository personRepository;
+
+    public PersonSearchController(PersonSearchIndex personSearchIndex, PersonRepository personRepository) {
+        this.personSearchIndex = personSearchIndex;
+        this.personRepository = personRepository;
+    }
+
+    @GetMapping(path = "/persons/search", params = "prefix")
+    @ResponseBody
+    List<PersonSearchResultDTO> searchPersons(@RequestParam String prefix, @RequestParam(defaultValue = "10") int limit) {
+        int size = Math.clamp(limit, 1, MAX_LIMIT);
+        if (prefix.isBlank()) {
+            return List.of();
+        }
+        if (personSearchIndex.isUsable()) {
+            return personSearchIndex.search(prefix, size);
+        }
+        return personRepository.findByUsernameStartingWithIgnoreCaseOrFirstNameStartingWithIgnoreCaseOrLastNameStartingWithIgnoreCase(prefix, prefix, prefix, Limit.of(size)).stream().map(person -> new PersonSearchResultDTO(person.getId(), person.getUsername(), person.getFirstName(), person.getLastName())).toList();
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.springwebapi.controllers;
+
+import com.example.springwebapi.dtos.TokenDTO;
+import com.example.springwebapi.security.AccessTokenService;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class TokenController {
+    private static final String TOKEN_TYPE = "Bearer";
+    private final AccessTokenService accessTokenService;
+
+    public TokenController(AccessTokenService accessTokenService) {
+        this.accessTokenService = accessTokenService;
+    }
+
+    @PostMapping("/token")
+    TokenDTO createToken(Authentication authentication) {
+        return new TokenDTO(accessTokenService.issue(authentication), TOKEN_TYPE, accessTokenService.getTimeToLive().toSeconds());
+    }
+}
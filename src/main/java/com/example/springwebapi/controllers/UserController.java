@@ -1,75 +1,489 @@
 package com.example.springwebapi.controllers;
 
+import com.example.springwebapi.audit.AuditLog;
+import com.example.springwebapi.dtos.AuditEventDTO;
+import com.example.springwebapi.dtos.UserBatchResultDTO;
 import com.example.springwebapi.dtos.UserDTO;
+import com.example.springwebapi.dtos.UsersPatchDTO;
+import com.example.springwebapi.events.UserChanged;
+import com.example.springwebapi.exceptions.PasswordHashingUnavailable;
 import com.example.springwebapi.exceptions.UserDataInvalid;
+import com.example.springwebapi.exceptions.UserVersionMismatch;
 import com.example.springwebapi.exceptions.UsernameConflict;
+import com.example.springwebapi.repositories.UserJdbcRepository;
+import com.example.springwebapi.security.AsyncPasswordEncoder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.JsonEOFException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.UserDetailsManager;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 public class UserController {
+    private static final Logger logger = LoggerFactory.getLogger(UserController.class);
     private static final String MASKED_PASSWORD = "********";
+    private static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+    private static final String ROLE_PREFIX = "ROLE_";
+    // users.username and authorities.authority are varchar(50), the stored authority includes the role prefix
+    private static final int MAX_USERNAME_LENGTH = 50;
+    private static final int MAX_AUTHORITY_LENGTH = 50 - ROLE_PREFIX.length();
     private final UserDetailsManager userDetailsManager;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserJdbcRepository userJdbcRepository;
+    private final ObjectMapper objectMapper;
+    private final AuditLog auditLog;
+    private final int batchChunkSize;
+    private final int exportFetchSize;
 
-    public UserController(UserDetailsManager userDetailsManager, PasswordEncoder passwordEncoder) {
+    public UserController(UserDetailsManager userDetailsManager, PasswordEncoder passwordEncoder, ApplicationEventPublisher eventPublisher, UserJdbcRepository userJdbcRepository, ObjectMapper objectMapper, AuditLog auditLog, @Value("${app.users.batch.chunk-size:500}") int batchChunkSize, @Value("${app.users.export.fetch-size:1000}") int exportFetchSize) {
         this.userDetailsManager = userDetailsManager;
         this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
+        this.userJdbcRepository = userJdbcRepository;
+        this.objectMapper = objectMapper;
+        this.auditLog = auditLog;
+        this.batchChunkSize = batchChunkSize;
+        this.exportFetchSize = exportFetchSize;
     }
 
     @PostMapping("/user")
     UserDTO createUser(@RequestBody UserDTO userDTO) {
         validateUserDTO(userDTO);
-        if (userDetailsManager.userExists(userDTO.username)) {
-            throw new UsernameConflict("Username " + userDTO.username + " already exists");
-        }
         UserDetails userDetails = User.builder().disabled(!userDTO.enabled).username(userDTO.username).password(passwordEncoder.encode(userDTO.password)).roles(userDTO.authorities).build();
-        userDetailsManager.createUser(userDetails);
-        userDetails = userDetailsManager.loadUserByUsername(userDTO.username);
-        return new UserDTO(userDetails.getUsername(), MASKED_PASSWORD, userDetails.isEnabled(), userDetails.getAuthorities().stream().map(authority -> authority.toString().substring(5)).toArray(String[]::new));
+        try {
+            userJdbcRepository.create(userDetails);
+        } catch (DuplicateKeyException e) {
+            throw new UsernameConflict("Username " + userDTO.username + " already exists", e);
+        }
+        auditLog.record(AuditEventDTO.USER_CREATED, userDTO.username);
+        return toUserDTO(userDetails);
     }
 
     @GetMapping("/user/{username}")
-    UserDTO getUser(@PathVariable String username) {
-        UserDetails userDetails = userDetailsManager.loadUserByUsername(username);
-        return new UserDTO(userDetails.getUsername(), MASKED_PASSWORD, userDetails.isEnabled(), userDetails.getAuthorities().stream().map(authority -> authority.toString().substring(5)).toArray(String[]::new));
+    UserDTO getUser(@PathVariable String username, WebRequest webRequest) {
+        UserJdbcRepository.UserVersion version = existingVersion(username, userJdbcRepository.findVersion(username));
+        if (webRequest.checkNotModified(eTag(version))) {
+            return null;
+        }
+        return toUserDTO(userDetailsManager.loadUserByUsername(username));
     }
 
     @PutMapping("/user/{username}")
-    UserDTO updateUser(@PathVariable String username, @RequestBody UserDTO userDTO) {
-        UserDetails userDetails = userDetailsManager.loadUserByUsername(username);
-        if (!userDetails.getUsername().equals(userDTO.username)) {
+    ResponseEntity<UserDTO> updateUser(@PathVariable String username, @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch, @RequestBody UserDTO userDTO) {
+        if (!username.equals(userDTO.username)) {
             throw new UserDataInvalid("Username " + username + " cannot be changed");
         }
+        // Check existence and version before paying for validation and a password hash
+        UserJdbcRepository.UserVersion expectedVersion = expectedVersion(username, ifMatch, existingVersion(username, userJdbcRepository.findPrimaryVersion(username)));
         validateUserDTO(userDTO);
-        userDetails = User.builder().disabled(!userDTO.enabled).username(userDTO.username).password(passwordEncoder.encode(userDTO.password)).roles(userDTO.authorities).build();
-        userDetailsManager.updateUser(userDetails);
-        userDetails = userDetailsManager.loadUserByUsername(userDTO.username);
-        return new UserDTO(userDetails.getUsername(), MASKED_PASSWORD, userDetails.isEnabled(), userDetails.getAuthorities().stream().map(authority -> authority.toString().substring(5)).toArray(String[]::new));
+        UserDetails userDetails = User.builder().disabled(!userDTO.enabled).username(userDTO.username).password(passwordEncoder.encode(userDTO.password)).roles(userDTO.authorities).build();
+        UserJdbcRepository.UserVersion version = userJdbcRepository.update(userDetails, expectedVersion);
+        if (version == null) {
+            throw new UsernameNotFoundException("Username " + username + " not found");
+        }
+        eventPublisher.publishEvent(new UserChanged(username));
+        auditLog.record(AuditEventDTO.USER_UPDATED, username);
+        return ResponseEntity.ok().eTag(eTag(version)).body(toUserDTO(userDetails));
+    }
+
+    @PatchMapping(path = "/user/{username}", consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    ResponseEntity<UserDTO> patchUser(@PathVariable String username, @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch, @RequestBody JsonNode patch) {
+        UserPatch userPatch = toUserPatch(patch);
+        if (userPatch.username() != null && !username.equals(userPatch.username())) {
+            throw new UserDataInvalid("Username " + username + " cannot be changed");
+        }
+        // Check existence and version before paying for a password hash
+        UserJdbcRepository.UserVersion expectedVersion = expectedVersion(username, ifMatch, existingVersion(username, userJdbcRepository.findPrimaryVersion(username)));
+        String password = userPatch.password() == null ? null : passwordEncoder.encode(userPatch.password());
+        UserJdbcRepository.PatchedUser patched = userJdbcRepository.patch(username, userPatch.enabled(), password, userPatch.authorities(), expectedVersion);
+        if (patched == null) {
+            throw new UsernameNotFoundException("Username " + username + " not found");
+        }
+        eventPublisher.publishEvent(new UserChanged(username));
+        auditLog.record(AuditEventDTO.USER_UPDATED, username);
+        UserDTO userDTO = patched.user();
+        userDTO.password = MASKED_PASSWORD;
+        userDTO.authorities = stripRolePrefix(userDTO.authorities);
+        return ResponseEntity.ok().eTag(eTag(patched.version())).body(userDTO);
+    }
+
+    @PatchMapping(path = "/users", consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    List<UserBatchResultDTO> patchUsers(@RequestBody UsersPatchDTO usersPatchDTO) {
+        if (usersPatchDTO.usernames == null || usersPatchDTO.usernames.length == 0) {
+            throw new UserDataInvalid("Usernames cannot be empty");
+        }
+        UserPatch userPatch = toUserPatch(usersPatchDTO.patch);
+        if (userPatch.username() != null) {
+            throw new UserDataInvalid("Username cannot be patched in bulk");
+        }
+        if (userPatch.password() != null) {
+            throw new UserDataInvalid("Password cannot be patched in bulk");
+        }
+        List<String> usernames = new ArrayList<>(new LinkedHashSet<>(Arrays.asList(usersPatchDTO.usernames)));
+        List<UserBatchResultDTO> results = new ArrayList<>(usernames.size());
+        for (int from = 0; from < usernames.size(); from += batchChunkSize) {
+            List<String> chunk = usernames.subList(from, Math.min(from + batchChunkSize, usernames.size()));
+            Set<String> patched = userJdbcRepository.patchAll(chunk, userPatch.enabled(), userPatch.authorities());
+            for (String username : chunk) {
+                if (patched.contains(username)) {
+                    results.add(new UserBatchResultDTO(username, UserBatchResultDTO.UPDATED, null));
+                    eventPublisher.publishEvent(new UserChanged(username));
+                    auditLog.record(AuditEventDTO.USER_UPDATED, username);
+                } else {
+                    results.add(new UserBatchResultDTO(username, UserBatchResultDTO.NOT_FOUND, "Username " + username + " not found"));
+                }
+            }
+        }
+        return results;
     }
 
     @DeleteMapping("/user/{username}")
     void deleteUser(@PathVariable String username) {
-        if (!userDetailsManager.userExists(username)) {
+        if (!userJdbcRepository.delete(username)) {
             throw new UsernameNotFoundException("Username " + username + " not found");
         }
-        userDetailsManager.deleteUser(username);
+        eventPublisher.publishEvent(new UserChanged(username));
+        auditLog.record(AuditEventDTO.USER_DELETED, username);
+    }
+
+    @PostMapping("/users/batch")
+    List<UserBatchResultDTO> createUsers(InputStream body) throws IOException {
+        List<UserBatchResultDTO> results = new ArrayList<>();
+        Set<String> usernames = new HashSet<>();
+        List<UserDTO> chunk = new ArrayList<>(batchChunkSize);
+        List<UserBatchResultDTO> chunkResults = new ArrayList<>(batchChunkSize);
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            try {
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    throw new UserDataInvalid("Users must be a JSON array");
+                }
+            } catch (JsonProcessingException e) {
+                throw new UserDataInvalid("Users must be a JSON array", e);
+            }
+            try {
+                for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                    if (token == null) {
+                        throw new JsonEOFException(parser, null, "Users array is not closed");
+                    }
+                    JsonNode node = parser.readValueAsTree();
+                    UserBatchResultDTO result = new UserBatchResultDTO(node.path("username").textValue(), null, null);
+                    results.add(result);
+                    UserDTO userDTO;
+                    try {
+                        userDTO = toUserDTO(node);
+                        validateUserDTO(userDTO);
+                    } catch (UserDataInvalid e) {
+                        result.status = UserBatchResultDTO.INVALID;
+                        result.message = e.getLocalizedMessage();
+                        continue;
+                    }
+                    if (!usernames.add(userDTO.username)) {
+                        result.status = UserBatchResultDTO.CONFLICT;
+                        result.message = "Username " + userDTO.username + " already exists";
+                        continue;
+                    }
+                    chunk.add(userDTO);
+                    chunkResults.add(result);
+                    if (chunk.size() == batchChunkSize) {
+                        createChunk(chunk, chunkResults);
+                    }
+                }
+            } catch (JsonProcessingException e) {
+                // Earlier chunks are already committed, so report the rest of the stream as one invalid row
+                results.add(new UserBatchResultDTO(null, UserBatchResultDTO.INVALID, "Malformed JSON at line " + e.getLocation().getLineNr() + ", column " + e.getLocation().getColumnNr() + ", remaining users were not read: " + e.getOriginalMessage()));
+            }
+        }
+        createChunk(chunk, chunkResults);
+        return results;
+    }
+
+    @GetMapping("/users/export")
+    void exportUsers(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) throws IOException {
+        if (format.equalsIgnoreCase("csv")) {
+            response.setContentType("text/csv");
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            Writer writer = new BufferedWriter(response.getWriter());
+            writer.write("username,enabled,authorities\n");
+            userJdbcRepository.forEachUser(exportFetchSize, userDTO -> {
+                try {
+                    writer.write(csvValue(userDTO.username) + "," + userDTO.enabled + "," + csvValue(String.join(";", stripRolePrefix(userDTO.authorities))) + "\n");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        } else if (format.equalsIgnoreCase("ndjson")) {
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+                // Lines are delimited by the newline alone, not by the default space between root values
+                generator.setRootValueSeparator(null);
+                userJdbcRepository.forEachUser(exportFetchSize, userDTO -> {
+                    try {
+                        userDTO.password = MASKED_PASSWORD;
+                        userDTO.authorities = stripRolePrefix(userDTO.authorities);
+                        generator.writeObject(userDTO);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        } else {
+            throw new UserDataInvalid("Export format " + format + " is not supported");
+        }
+    }
+
+    private static UserPatch toUserPatch(JsonNode patch) {
+        if (patch == null || !patch.isObject()) {
+            throw new UserDataInvalid("Patch must be a JSON object");
+        }
+        if (patch.isEmpty()) {
+            throw new UserDataInvalid("Patch cannot be empty");
+        }
+        String username = null;
+        Boolean enabled = null;
+        String password = null;
+        Set<String> authorities = null;
+        for (Map.Entry<String, JsonNode> field : patch.properties()) {
+            JsonNode value = field.getValue();
+            switch (field.getKey()) {
+                case "username" -> {
+                    if (!value.isTextual()) {
+                        throw new UserDataInvalid("Username cannot be empty");
+                    }
+                    username = value.asText();
+                }
+                case "enabled" -> {
+                    if (!value.isBoolean()) {
+                        throw new UserDataInvalid("Enabled must be true or false");
+                    }
+                    enabled = value.asBoolean();
+                }
+                case "password" -> {
+                    if (!value.isTextual() || value.asText().isBlank()) {
+                        throw new UserDataInvalid("Password cannot be empty");
+                    }
+                    password = value.asText();
+                }
+                case "authorities" -> {
+                    if (!value.isArray() || value.isEmpty()) {
+                        throw new UserDataInvalid("Authorities cannot be empty");
+                    }
+                    authorities = new LinkedHashSet<>();
+                    for (JsonNode authority : value) {
+                        if (!authority.isTextual()) {
+                            throw new UserDataInvalid("Authorities cannot be empty");
+                        }
+                        validateAuthority(authority.asText());
+                        authorities.add(ROLE_PREFIX + authority.asText());
+                    }
+                }
+                default -> throw new UserDataInvalid("Field " + field.getKey() + " cannot be patched");
+            }
+        }
+        return new UserPatch(username, enabled, password, authorities);
+    }
+
+    private static UserJdbcRepository.UserVersion existingVersion(String username, UserJdbcRepository.UserVersion version) {
+        if (version == null) {
+            throw new UsernameNotFoundException("Username " + username + " not found");
+        }
+        return version;
+    }
+
+    private static String eTag(UserJdbcRepository.UserVersion version) {
+        return "\"" + version.incarnation() + "." + version.version() + "\"";
+    }
+
+    private static UserJdbcRepository.UserVersion expectedVersion(String username, String ifMatch, UserJdbcRepository.UserVersion currentVersion) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        // If-Match uses the strong comparison, so weak tags in the list never match
+        String eTag = eTag(currentVersion);
+        for (String tag : ifMatch.split(",")) {
+            if (tag.trim().equals(eTag)) {
+                return currentVersion;
+            }
+        }
+        throw new UserVersionMismatch("Version of username " + username + " does not match " + ifMatch);
+    }
+
+    private static String[] stripRolePrefix(String[] authorities) {
+        return Arrays.stream(authorities).map(authority -> authority.substring(5)).toArray(String[]::new);
+    }
+
+    private static String csvValue(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private UserDTO toUserDTO(JsonNode node) {
+        if (!node.isObject()) {
+            throw new UserDataInvalid("User must be a JSON object");
+        }
+        try {
+            return objectMapper.treeToValue(node, UserDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new UserDataInvalid(e.getOriginalMessage());
+        }
+    }
+
+    private void createChunk(List<UserDTO> chunk, List<UserBatchResultDTO> chunkResults) {
+        List<String> passwords = encodePasswords(chunk);
+        List<UserDetails> users = new ArrayList<>(chunk.size());
+        List<UserBatchResultDTO> pendingResults = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            UserDTO userDTO = chunk.get(i);
+            if (passwords.get(i) == null) {
+                chunkResults.get(i).status = UserBatchResultDTO.UNAVAILABLE;
+                chunkResults.get(i).message = "Password hashing capacity exhausted";
+                continue;
+            }
+            users.add(User.builder().disabled(!userDTO.enabled).username(userDTO.username).password(passwords.get(i)).roles(userDTO.authorities).build());
+            pendingResults.add(chunkResults.get(i));
+        }
+        chunk.clear();
+        chunkResults.clear();
+        Set<String> conflicts;
+        try {
+            conflicts = createAll(users);
+        } catch (DuplicateKeyException e) {
+            for (UserBatchResultDTO result : pendingResults) {
+                result.status = UserBatchResultDTO.CONFLICT;
+                result.message = "Username " + result.username + " may have been created concurrently";
+            }
+            return;
+        } catch (DataIntegrityViolationException e) {
+            // Only this chunk was rolled back, earlier chunks stay committed and are still reported
+            logger.warn("Chunk of {} users could not be stored", pendingResults.size(), e);
+            for (UserBatchResultDTO result : pendingResults) {
+                result.status = UserBatchResultDTO.FAILED;
+                result.message = "Users of this chunk could not be stored";
+            }
+            return;
+        }
+        for (UserBatchResultDTO result : pendingResults) {
+            if (conflicts.contains(result.username)) {
+                result.status = UserBatchResultDTO.CONFLICT;
+                result.message = "Username " + result.username + " already exists";
+            } else {
+                result.status = UserBatchResultDTO.CREATED;
+                auditLog.record(AuditEventDTO.USER_CREATED, result.username);
+            }
+        }
+    }
+
+    private Set<String> createAll(List<UserDetails> users) {
+        try {
+            return userJdbcRepository.createAll(users);
+        } catch (DuplicateKeyException e) {
+            // A concurrent insert landed between the existence check and the insert; the chunk was rolled back, so the retry sees it
+            return userJdbcRepository.createAll(users);
+        }
+    }
+
+    // Keeps at most as many hashes in flight as the encoder runs in parallel, so a batch never fills the queue logins wait in
+    private List<String> encodePasswords(List<UserDTO> chunk) {
+        int parallelism = passwordEncoder instanceof AsyncPasswordEncoder asyncPasswordEncoder ? asyncPasswordEncoder.getParallelism() : 1;
+        List<CompletableFuture<String>> futures = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            if (i >= parallelism) {
+                encodedOrNull(futures.get(i - parallelism));
+            }
+            futures.add(encodeAsync(chunk.get(i).password));
+        }
+        return futures.stream().map(UserController::encodedOrNull).toList();
+    }
+
+    private CompletableFuture<String> encodeAsync(String password) {
+        if (passwordEncoder instanceof AsyncPasswordEncoder asyncPasswordEncoder) {
+            return asyncPasswordEncoder.encodeAsync(password);
+        }
+        try {
+            return CompletableFuture.completedFuture(passwordEncoder.encode(password));
+        } catch (PasswordHashingUnavailable e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static String encodedOrNull(CompletableFuture<String> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof PasswordHashingUnavailable) {
+                return null;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    static UserDTO toUserDTO(UserDetails userDetails) {
+        return new UserDTO(userDetails.getUsername(), MASKED_PASSWORD, userDetails.isEnabled(), userDetails.getAuthorities().stream().map(authority -> authority.toString().substring(5)).toArray(String[]::new));
+    }
+
+    private record UserPatch(String username, Boolean enabled, String password, Set<String> authorities) {
     }
 
     private void validateUserDTO(@RequestBody UserDTO userDTO) {
         if (userDTO.username == null || userDTO.username.isBlank()) {
             throw new UserDataInvalid("Username cannot be empty");
         }
+        if (userDTO.username.length() > MAX_USERNAME_LENGTH) {
+            throw new UserDataInvalid("Username cannot be longer than " + MAX_USERNAME_LENGTH + " characters");
+        }
         if (userDTO.password == null || userDTO.password.isBlank()) {
             throw new UserDataInvalid("Password cannot be empty");
         }
         if (userDTO.authorities == null || userDTO.authorities.length == 0) {
             throw new UserDataInvalid("Authorities cannot be empty");
         }
+        for (String authority : userDTO.authorities) {
+            validateAuthority(authority);
+        }
+    }
+
+    private static void validateAuthority(String authority) {
+        if (authority == null || authority.isBlank()) {
+            throw new UserDataInvalid("Authorities cannot be empty");
+        }
+        if (authority.length() > MAX_AUTHORITY_LENGTH) {
+            throw new UserDataInvalid("Authority cannot be longer than " + MAX_AUTHORITY_LENGTH + " characters");
+        }
+        if (authority.startsWith(ROLE_PREFIX)) {
+            throw new UserDataInvalid("Authority " + authority + " cannot start with " + ROLE_PREFIX);
+        }
     }
 
     @ExceptionHandler(UsernameNotFoundException.class)
@@ -89,4 +503,16 @@ public class UserController {
     String handleUserInvalidException(UserDataInvalid e) {
         return e.getLocalizedMessage();
     }
+
+    @ExceptionHandler(UserVersionMismatch.class)
+    @ResponseStatus(org.springframework.http.HttpStatus.PRECONDITION_FAILED)
+    String handleUserVersionMismatch(UserVersionMismatch e) {
+        return e.getLocalizedMessage();
+    }
+
+    @ExceptionHandler(PasswordHashingUnavailable.class)
+    @ResponseStatus(org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE)
+    String handlePasswordHashingUnavailable(PasswordHashingUnavailable e) {
+        return e.getLocalizedMessage();
+    }
 }
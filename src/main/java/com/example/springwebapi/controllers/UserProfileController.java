@@ -0,0 +1,63 @@
+package com.example.springwebapi.controllers;
+
+import com.example.springwebapi.dtos.UserProfileDTO;
+import com.example.springwebapi.exceptions.UserDataInvalid;
+import com.example.springwebapi.repositories.UserProfileJdbcRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.*;
+
+@RestController
+public class UserProfileController {
+    private final UserProfileJdbcRepository userProfileJdbcRepository;
+    private final int lookupChunkSize;
+
+    public UserProfileController(UserProfileJdbcRepository userProfileJdbcRepository, @Value("${app.profiles.lookup.chunk-size:500}") int lookupChunkSize) {
+        this.userProfileJdbcRepository = userProfileJdbcRepository;
+        this.lookupChunkSize = lookupChunkSize;
+    }
+
+    @GetMapping("/profiles/{username}")
+    UserProfileDTO getProfile(@PathVariable String username) {
+        UserProfileDTO userProfileDTO = userProfileJdbcRepository.findAll(List.of(username)).get(username);
+        if (userProfileDTO == null) {
+            throw new UsernameNotFoundException("Username " + username + " not found");
+        }
+        return userProfileDTO;
+    }
+
+    @PostMapping("/profiles/lookup")
+    List<UserProfileDTO> lookupProfiles(@RequestBody String[] usernames) {
+        if (usernames == null || usernames.length == 0) {
+            throw new UserDataInvalid("Usernames cannot be empty");
+        }
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(Arrays.asList(usernames)));
+        List<UserProfileDTO> profiles = new ArrayList<>(distinct.size());
+        for (int from = 0; from < distinct.size(); from += lookupChunkSize) {
+            List<String> chunk = distinct.subList(from, Math.min(from + lookupChunkSize, distinct.size()));
+            Map<String, UserProfileDTO> found = userProfileJdbcRepository.findAll(chunk);
+            for (String username : chunk) {
+                UserProfileDTO userProfileDTO = found.get(username);
+                if (userProfileDTO != null) {
+                    profiles.add(userProfileDTO);
+                }
+            }
+        }
+        return profiles;
+    }
+
+    @ExceptionHandler(UsernameNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    String handleUsernameNotFoundException(UsernameNotFoundException e) {
+        return e.getLocalizedMessage();
+    }
+
+    @ExceptionHandler(UserDataInvalid.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    String handleUserInvalidException(UserDataInvalid e) {
+        return e.getLocalizedMessage();
+    }
+}
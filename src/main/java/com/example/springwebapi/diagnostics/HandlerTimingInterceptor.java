@@ -0,0 +1,39 @@
+package com.example.springwebapi.diagnostics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.actuate.metrics.http.Outcome;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+public class HandlerTimingInterceptor implements HandlerInterceptor {
+    private static final String SAMPLE_ATTRIBUTE = HandlerTimingInterceptor.class.getName() + ".SAMPLE";
+    private final MeterRegistry meterRegistry;
+
+    public HandlerTimingInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            request.setAttribute(SAMPLE_ATTRIBUTE, Timer.start(meterRegistry));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(request.getAttribute(SAMPLE_ATTRIBUTE) instanceof Timer.Sample sample) || !(handler instanceof HandlerMethod handlerMethod)) {
+            return;
+        }
+        request.removeAttribute(SAMPLE_ATTRIBUTE);
+        sample.stop(Timer.builder("http.server.handler")
+                .tag("endpoint", handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName())
+                .tag("outcome", ex != null ? Outcome.SERVER_ERROR.name() : Outcome.forStatus(response.getStatus()).name())
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.springwebapi.diagnostics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+
+public class StatementCountingDataSource extends DelegatingDataSource {
+    public StatementCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private static <T> T proxy(Class<T> type, T target) {
+        return type.cast(Proxy.newProxyInstance(StatementCountingDataSource.class.getClassLoader(), new Class<?>[]{type}, new CountingHandler(target)));
+    }
+
+    private record CountingHandler(Object target) implements InvocationHandler {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("unwrap") && args[0] instanceof Class<?> type && type.isInstance(proxy)) {
+                return proxy;
+            }
+            if (name.equals("isWrapperFor") && args[0] instanceof Class<?> type && type.isInstance(proxy)) {
+                return true;
+            }
+            if (name.equals("equals")) {
+                return proxy == args[0];
+            }
+            if (name.equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            if (name.startsWith("execute")) {
+                SqlStatementCounter.increment();
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+            if (result instanceof CallableStatement callableStatement) {
+                return proxy(CallableStatement.class, callableStatement);
+            }
+            if (result instanceof PreparedStatement preparedStatement) {
+                return proxy(PreparedStatement.class, preparedStatement);
+            }
+            if (result instanceof Statement statement && !name.equals("getStatement")) {
+                return proxy(Statement.class, statement);
+            }
+            return result;
+        }
+    }
+}
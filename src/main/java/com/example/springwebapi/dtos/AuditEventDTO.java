@@ -0,0 +1,23 @@
+package com.example.springwebapi.dtos;
+
+import java.time.Instant;
+
+public class AuditEventDTO {
+    public static final String USER_CREATED = "user_created";
+    public static final String USER_UPDATED = "user_updated";
+    public static final String USER_DELETED = "user_deleted";
+    public static final String LOGIN_FAILED = "login_failed";
+    public Long id;
+    public Instant occurredAt;
+    public String actor;
+    public String action;
+    public String target;
+
+    public AuditEventDTO(Long id, Instant occurredAt, String actor, String action, String target) {
+        this.id = id;
+        this.occurredAt = occurredAt;
+        this.actor = actor;
+        this.action = action;
+        this.target = target;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.springwebapi.dtos;
+
+public class PersonIngestResultDTO {
+    public long created;
+    public String error;
+
+    public PersonIngestResultDTO(long created, String error) {
+        this.created = created;
+        this.error = error;
+    }
+}
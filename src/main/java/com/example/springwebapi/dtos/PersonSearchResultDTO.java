@@ -0,0 +1,15 @@
+package com.example.springwebapi.dtos;
+
+public class PersonSearchResultDTO {
+    public long id;
+    public String username;
+    public String firstName;
+    public String lastName;
+
+    public PersonSearchResultDTO(long id, String username, String firstName, String lastName) {
+        this.id = id;
+        this.username = username;
+        this.firstName = firstName;
+        this.lastName = lastName;
+    }
+}
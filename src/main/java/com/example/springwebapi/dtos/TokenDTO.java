@@ -0,0 +1,13 @@
+package com.example.springwebapi.dtos;
+
+public class TokenDTO {
+    public String accessToken;
+    public String tokenType;
+    public long expiresIn;
+
+    public TokenDTO(String accessToken, String tokenType, long expiresIn) {
+        this.accessToken = accessToken;
+        this.tokenType = tokenType;
+        this.expiresIn = expiresIn;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.springwebapi.dtos;
+
+public class UserBatchResultDTO {
+    public static final String CREATED = "created";
+    public static final String CONFLICT = "conflict";
+    public static final String INVALID = "invalid";
+    public static final String UPDATED = "updated";
+    public static final String NOT_FOUND = "not_found";
+    public static final String UNAVAILABLE = "unavailable";
+    public static final String FAILED = "failed";
+    public String username;
+    public String status;
+    public String message;
+
+    public UserBatchResultDTO(String username, String status, String message) {
+        this.username = username;
+        this.status = status;
+        this.message = message;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.springwebapi.dtos;
+
+public class UserProfileDTO {
+    public String username;
+    public boolean enabled;
+    public String[] authorities;
+    public Long personId;
+    public String firstName;
+    public String lastName;
+
+    public UserProfileDTO(String username, boolean enabled, String[] authorities, Long personId, String firstName, String lastName) {
+        this.username = username;
+        this.enabled = enabled;
+        this.authorities = authorities;
+        this.personId = personId;
+        this.firstName = firstName;
+        this.lastName = lastName;
+    }
+}
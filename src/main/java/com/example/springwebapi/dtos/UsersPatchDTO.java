@@ -0,0 +1,13 @@
+package com.example.springwebapi.dtos;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+public class UsersPatchDTO {
+    public String[] usernames;
+    public JsonNode patch;
+
+    public UsersPatchDTO(String[] usernames, JsonNode patch) {
+        this.usernames = usernames;
+        this.patch = patch;
+    }
+}
@@ -1,20 +1,34 @@
 package com.example.springwebapi.entities;
 
-
-import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
-import jakarta.persistence.Id;
+import com.example.springwebapi.search.PersonSearchIndexListener;
+import jakarta.persistence.*;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
+@Cacheable
+@org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "persons")
+@EntityListeners(PersonSearchIndexListener.class)
 public class Person {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "person_seq")
+    @SequenceGenerator(name = "person_seq", sequenceName = "person_seq", allocationSize = 50)
     private long id;
+    @Version
+    @ColumnDefault("0")
+    private long version;
     private String username;
     private String firstName;
     private String lastName;
 
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
     public String getFirstName() {
         return firstName;
     }
@@ -38,4 +52,8 @@ public class Person {
     public void setUsername(String username) {
         this.username = username;
     }
+
+    public long getVersion() {
+        return version;
+    }
 }
@@ -1,17 +1,28 @@
 package com.example.springwebapi.entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.Immutable;
 
 import java.util.List;
 
 @Entity
+@Cacheable
+@org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 @Table(name = "users")
 public class User {
     @Id
     private String username;
+    @Version
+    @ColumnDefault("0")
+    private long version;
     private String password;
     private boolean enabled;
-    @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
+    // Authorities are written through UserJdbcRepository, the authority view behind this join cannot be written
+    @org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-authorities")
+    @Immutable
+    @OneToMany
     @JoinTable(name = "authorities", joinColumns = @JoinColumn(name = "username"), inverseJoinColumns = @JoinColumn(name = "authority"))
     private List<Authority> authorities;
 
@@ -46,4 +57,8 @@ public class User {
     public void setAuthorities(List<Authority> authorities) {
         this.authorities = authorities;
     }
+
+    public long getVersion() {
+        return version;
+    }
 }
@@ -0,0 +1,4 @@
+package com.example.springwebapi.events;
+
+public record UserChanged(String username) {
+}
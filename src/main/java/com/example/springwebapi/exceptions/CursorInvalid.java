@@ -0,0 +1,11 @@
+package com.example.springwebapi.exceptions;
+
+public class CursorInvalid extends RuntimeException {
+    public CursorInvalid(String message) {
+        super(message);
+    }
+
+    public CursorInvalid(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
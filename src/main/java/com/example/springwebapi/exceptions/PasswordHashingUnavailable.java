@@ -0,0 +1,11 @@
+package com.example.springwebapi.exceptions;
+
+public class PasswordHashingUnavailable extends RuntimeException {
+    public PasswordHashingUnavailable(String message) {
+        super(message);
+    }
+
+    public PasswordHashingUnavailable(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
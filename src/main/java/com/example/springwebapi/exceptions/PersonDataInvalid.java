@@ -0,0 +1,22 @@
+package com.example.springwebapi.exceptions;
+
+public class PersonDataInvalid extends RuntimeException {
+    private final long created;
+
+    public PersonDataInvalid(String message) {
+        this(message, 0, null);
+    }
+
+    public PersonDataInvalid(String message, Throwable cause) {
+        this(message, 0, cause);
+    }
+
+    public PersonDataInvalid(String message, long created, Throwable cause) {
+        super(message, cause);
+        this.created = created;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+}
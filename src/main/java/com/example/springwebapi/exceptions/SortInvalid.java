@@ -0,0 +1,7 @@
+package com.example.springwebapi.exceptions;
+
+public class SortInvalid extends RuntimeException {
+    public SortInvalid(String message) {
+        super(message);
+    }
+}
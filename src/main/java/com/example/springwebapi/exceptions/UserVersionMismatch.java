@@ -0,0 +1,11 @@
+package com.example.springwebapi.exceptions;
+
+public class UserVersionMismatch extends RuntimeException {
+    public UserVersionMismatch(String message) {
+        super(message);
+    }
+
+    public UserVersionMismatch(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
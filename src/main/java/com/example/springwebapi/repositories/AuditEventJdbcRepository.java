@@ -0,0 +1,46 @@
+package com.example.springwebapi.repositories;
+
+import com.example.springwebapi.dtos.AuditEventDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.List;
+
+@Repository
+public class AuditEventJdbcRepository {
+    private static final String INSERT_EVENT_SQL = "insert into audit_event (occurred_at, actor, action, target) values (?,?,?,?)";
+    private static final String SELECT_EVENTS_SQL = "select id, occurred_at, actor, action, target from audit_event";
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public AuditEventJdbcRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    @Transactional
+    public void insertAll(List<AuditEventDTO> events) {
+        jdbcTemplate.batchUpdate(INSERT_EVENT_SQL, events.stream().map(event -> new Object[]{Timestamp.from(event.occurredAt), event.actor, event.action, event.target}).toList());
+    }
+
+    @Transactional(readOnly = true)
+    public List<AuditEventDTO> findRecent(String actor, String target, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT_EVENTS_SQL);
+        MapSqlParameterSource parameters = new MapSqlParameterSource("limit", limit);
+        if (actor != null) {
+            sql.append(" where actor = :actor");
+            parameters.addValue("actor", actor);
+        }
+        if (target != null) {
+            sql.append(actor != null ? " and" : " where").append(" target = :target");
+            parameters.addValue("target", target);
+        }
+        sql.append(" order by id desc fetch first :limit rows only");
+        return namedParameterJdbcTemplate.query(sql.toString(), parameters, (resultSet, rowNum) -> new AuditEventDTO(resultSet.getLong("id"), resultSet.getTimestamp("occurred_at").toInstant(), resultSet.getString("actor"), resultSet.getString("action"), resultSet.getString("target")));
+    }
+}
@@ -1,11 +1,42 @@
 package com.example.springwebapi.repositories;
 
 import com.example.springwebapi.entities.Person;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
+
+import java.util.List;
 
 @RepositoryRestResource(path = "persons", collectionResourceRel = "persons")
 public interface PersonRepository extends PagingAndSortingRepository<Person, Long>, CrudRepository<Person, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Person findByUsername(String username);
+
+    @RestResource(exported = false)
+    List<Person> findByUsernameStartingWithIgnoreCaseOrFirstNameStartingWithIgnoreCaseOrLastNameStartingWithIgnoreCase(String username, String firstName, String lastName, Limit limit);
+
+    @RestResource(exported = false)
+    Window<Person> findBy(ScrollPosition position, Sort sort, Limit limit);
+
+    // Null-aware keyset scrolling by username: nulls sort last and are ordered by id
+    @RestResource(exported = false)
+    @Query("select p from Person p order by p.username asc nulls last, p.id asc")
+    List<Person> findOrderByUsername(Limit limit);
+
+    @RestResource(exported = false)
+    @Query("select p from Person p where p.username > :username or (p.username = :username and p.id > :id) or p.username is null order by p.username asc nulls last, p.id asc")
+    List<Person> findOrderByUsernameAfter(String username, long id, Limit limit);
+
+    @RestResource(exported = false)
+    @Query("select p from Person p where p.username is null and p.id > :id order by p.id asc")
+    List<Person> findOrderByUsernameAfterNull(long id, Limit limit);
 }
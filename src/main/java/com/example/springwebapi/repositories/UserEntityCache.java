@@ -0,0 +1,46 @@
+package com.example.springwebapi.repositories;
+
+import com.example.springwebapi.entities.User;
+import com.example.springwebapi.events.UserChanged;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Component
+public class UserEntityCache {
+    public static final String QUERY_REGION = "user-queries";
+    private static final String AUTHORITIES_ROLE = User.class.getName() + ".authorities";
+    private final Cache cache;
+
+    public UserEntityCache(EntityManagerFactory entityManagerFactory) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    @EventListener
+    public void onUserChanged(UserChanged event) {
+        evict(event.username());
+    }
+
+    public void evict(String username) {
+        cache.evictEntityData(User.class, username);
+        cache.evictCollectionData(AUTHORITIES_ROLE, username);
+        cache.evictQueryRegion(QUERY_REGION);
+    }
+
+    public void evictQueriesAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.evictQueryRegion(QUERY_REGION);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.evictQueryRegion(QUERY_REGION);
+            }
+        });
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.springwebapi.repositories;
+
+import com.example.springwebapi.dtos.UserDTO;
+import com.example.springwebapi.exceptions.UserVersionMismatch;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+@Repository
+public class UserJdbcRepository {
+    private static final String INSERT_USER_SQL = "insert into users (username, password, enabled) values (?,?,?)";
+    private static final String INSERT_AUTHORITY_SQL = "insert into authorities (username, authority) values (?,?)";
+    private static final String UPDATE_USER_SQL = "update users set password = ?, enabled = ?, version = version + 1 where username = ?";
+    private static final String UPDATE_USER_IF_VERSION_SQL = "update users set password = ?, enabled = ?, version = version + 1 where username = ? and incarnation = ? and version = ?";
+    private static final String PATCH_USER_VERSION_SQL = "update users set version = version + 1 where username = ?";
+    private static final String PATCH_USER_ENABLED_SQL = "update users set version = version + 1, enabled = ? where username = ?";
+    private static final String UPDATE_PASSWORD_SQL = "update users set password = ? where username = ? and password = ?";
+    private static final String SELECT_PASSWORDS_SQL = "select password from users";
+    private static final String SELECT_VERSION_SQL = "select incarnation, version from users where username = ?";
+    private static final String DELETE_AUTHORITIES_SQL = "delete from authorities where username = ?";
+    private static final String DELETE_USER_SQL = "delete from users where username = ?";
+    private static final String DELETE_AUTHORITY_SQL = "delete from authorities where username = ? and authority = ?";
+    private static final String SELECT_AUTHORITIES_SQL = "select authority from authorities where username = ?";
+    private static final String SELECT_USER_WITH_AUTHORITIES_SQL = "select u.enabled, u.incarnation, u.version, a.authority from users u left join authorities a on a.username = u.username where u.username = ?";
+    private static final String DELETE_OTHER_AUTHORITIES_SQL = "delete from authorities where username in (:usernames) and authority not in (:authorities)";
+    private static final String SELECT_AUTHORITIES_OF_USERS_SQL = "select username, authority from authorities where username in (:usernames)";
+    private static final String SELECT_EXISTING_USERNAMES_SQL = "select username from users where username in (:usernames)";
+    private static final String SELECT_USERS_WITH_AUTHORITIES_SQL = "select u.username, u.enabled, a.authority from users u left join authorities a on a.username = u.username order by u.username";
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final UserEntityCache userEntityCache;
+
+    public UserJdbcRepository(DataSource dataSource, UserEntityCache userEntityCache) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.userEntityCache = userEntityCache;
+    }
+
+    @Transactional
+    public void create(UserDetails user) {
+        jdbcTemplate.update(INSERT_USER_SQL, user.getUsername(), user.getPassword(), user.isEnabled());
+        insertAuthorities(List.of(user));
+        userEntityCache.evictQueriesAfterCommit();
+    }
+
+    @Transactional
+    public UserVersion update(UserDetails user, UserVersion expectedVersion) {
+        int updated = expectedVersion == null
+                ? jdbcTemplate.update(UPDATE_USER_SQL, user.getPassword(), user.isEnabled(), user.getUsername())
+                : jdbcTemplate.update(UPDATE_USER_IF_VERSION_SQL, user.getPassword(), user.isEnabled(), user.getUsername(), expectedVersion.incarnation(), expectedVersion.version());
+        if (updated == 0) {
+            if (expectedVersion != null && findVersion(user.getUsername()) != null) {
+                throw new UserVersionMismatch("Username " + user.getUsername() + " was modified concurrently");
+            }
+            return null;
+        }
+        jdbcTemplate.update(DELETE_AUTHORITIES_SQL, user.getUsername());
+        insertAuthorities(List.of(user));
+        return expectedVersion == null ? findVersion(user.getUsername()) : new UserVersion(expectedVersion.incarnation(), expectedVersion.version() + 1);
+    }
+
+    @Transactional
+    public PatchedUser patch(String username, Boolean enabled, String password, Set<String> authorities, UserVersion expectedVersion) {
+        StringBuilder sql = new StringBuilder("update users set version = version + 1");
+        List<Object> arguments = new ArrayList<>();
+        if (enabled != null) {
+            sql.append(", enabled = ?");
+            arguments.add(enabled);
+        }
+        if (password != null) {
+            sql.append(", password = ?");
+            arguments.add(password);
+        }
+        sql.append(" where username = ?");
+        arguments.add(username);
+        if (expectedVersion != null) {
+            sql.append(" and incarnation = ? and version = ?");
+            arguments.add(expectedVersion.incarnation());
+            arguments.add(expectedVersion.version());
+        }
+        if (jdbcTemplate.update(sql.toString(), arguments.toArray()) == 0) {
+            if (expectedVersion != null && findVersion(username) != null) {
+                throw new UserVersionMismatch("Username " + username + " was modified concurrently");
+            }
+            return null;
+        }
+        if (authorities != null) {
+            Set<String> existing = new HashSet<>(jdbcTemplate.queryForList(SELECT_AUTHORITIES_SQL, String.class, username));
+            jdbcTemplate.batchUpdate(DELETE_AUTHORITY_SQL, existing.stream().filter(authority -> !authorities.contains(authority)).map(authority -> new Object[]{username, authority}).toList());
+            jdbcTemplate.batchUpdate(INSERT_AUTHORITY_SQL, authorities.stream().filter(authority -> !existing.contains(authority)).map(authority -> new Object[]{username, authority}).toList());
+        }
+        List<String> patchedAuthorities = new ArrayList<>();
+        UserVersion[] version = new UserVersion[1];
+        boolean[] patchedEnabled = new boolean[1];
+        jdbcTemplate.query(SELECT_USER_WITH_AUTHORITIES_SQL, resultSet -> {
+            patchedEnabled[0] = resultSet.getBoolean("enabled");
+            version[0] = new UserVersion(resultSet.getLong("incarnation"), resultSet.getLong("version"));
+            String authority = resultSet.getString("authority");
+            if (authority != null) {
+                patchedAuthorities.add(authority);
+            }
+        }, username);
+        return new PatchedUser(new UserDTO(username, null, patchedEnabled[0], patchedAuthorities.toArray(String[]::new)), version[0]);
+    }
+
+    @Transactional
+    public Set<String> patchAll(List<String> usernames, Boolean enabled, Set<String> authorities) {
+        // Count the rows each update actually changed, a user deleted after the request was read is not reported as patched
+        int[] counts = enabled != null
+                ? jdbcTemplate.batchUpdate(PATCH_USER_ENABLED_SQL, usernames.stream().map(username -> new Object[]{enabled, username}).toList())
+                : jdbcTemplate.batchUpdate(PATCH_USER_VERSION_SQL, usernames.stream().map(username -> new Object[]{username}).toList());
+        Set<String> patched = new LinkedHashSet<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                patched.add(usernames.get(i));
+            }
+        }
+        if (patched.isEmpty()) {
+            return patched;
+        }
+        if (authorities != null) {
+            MapSqlParameterSource parameters = new MapSqlParameterSource("usernames", patched).addValue("authorities", authorities);
+            namedParameterJdbcTemplate.update(DELETE_OTHER_AUTHORITIES_SQL, parameters);
+            Set<String> present = new HashSet<>();
+            namedParameterJdbcTemplate.query(SELECT_AUTHORITIES_OF_USERS_SQL, parameters, resultSet -> {
+                present.add(resultSet.getString("username") + '\u0000' + resultSet.getString("authority"));
+            });
+            List<Object[]> missing = new ArrayList<>();
+            for (String username : patched) {
+                for (String authority : authorities) {
+                    if (!present.contains(username + '\u0000' + authority)) {
+                        missing.add(new Object[]{username, authority});
+                    }
+                }
+            }
+            jdbcTemplate.batchUpdate(INSERT_AUTHORITY_SQL, missing);
+        }
+        return patched;
+    }
+
+    @Transactional
+    public boolean updatePassword(String username, String currentPassword, String newPassword) {
+        return jdbcTemplate.update(UPDATE_PASSWORD_SQL, newPassword, username, currentPassword) > 0;
+    }
+
+    @Transactional(readOnly = true)
+    public long countPasswords(int fetchSize, Predicate<String> predicate) {
+        long[] count = new long[1];
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_PASSWORDS_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, resultSet -> {
+            if (predicate.test(resultSet.getString(1))) {
+                count[0]++;
+            }
+        });
+        return count[0];
+    }
+
+    @Transactional(readOnly = true)
+    public UserVersion findVersion(String username) {
+        List<UserVersion> versions = jdbcTemplate.query(SELECT_VERSION_SQL, (resultSet, rowNum) -> new UserVersion(resultSet.getLong("incarnation"), resultSet.getLong("version")), username);
+        return versions.isEmpty() ? null : versions.get(0);
+    }
+
+    // Writes check against the primary, a lagging replica would answer 404 right after a create or a stale version
+    @Transactional
+    public UserVersion findPrimaryVersion(String username) {
+        return findVersion(username);
+    }
+
+    @Transactional
+    public boolean delete(String username) {
+        jdbcTemplate.update(DELETE_AUTHORITIES_SQL, username);
+        return jdbcTemplate.update(DELETE_USER_SQL, username) > 0;
+    }
+
+    @Transactional
+    public Set<String> createAll(List<UserDetails> users) {
+        if (users.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> existing = new HashSet<>(namedParameterJdbcTemplate.queryForList(SELECT_EXISTING_USERNAMES_SQL, Map.of("usernames", users.stream().map(UserDetails::getUsername).toList()), String.class));
+        List<UserDetails> created = users.stream().filter(user -> !existing.contains(user.getUsername())).toList();
+        insertUsers(created);
+        insertAuthorities(created);
+        userEntityCache.evictQueriesAfterCommit();
+        return existing;
+    }
+
+    private void insertUsers(List<UserDetails> users) {
+        jdbcTemplate.batchUpdate(INSERT_USER_SQL, users.stream().map(user -> new Object[]{user.getUsername(), user.getPassword(), user.isEnabled()}).toList());
+    }
+
+    private void insertAuthorities(List<UserDetails> users) {
+        List<Object[]> authorities = new ArrayList<>();
+        for (UserDetails user : users) {
+            for (GrantedAuthority authority : user.getAuthorities()) {
+                authorities.add(new Object[]{user.getUsername(), authority.getAuthority()});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_AUTHORITY_SQL, authorities);
+    }
+
+    @Transactional(readOnly = true)
+    public void forEachUser(int fetchSize, Consumer<UserDTO> consumer) {
+        List<String> authorities = new ArrayList<>();
+        UserDTO[] current = new UserDTO[1];
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_USERS_WITH_AUTHORITIES_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, resultSet -> {
+            String username = resultSet.getString("username");
+            if (current[0] != null && !current[0].username.equals(username)) {
+                current[0].authorities = authorities.toArray(String[]::new);
+                consumer.accept(current[0]);
+                authorities.clear();
+            }
+            if (current[0] == null || !current[0].username.equals(username)) {
+                current[0] = new UserDTO(username, null, resultSet.getBoolean("enabled"), null);
+            }
+            String authority = resultSet.getString("authority");
+            if (authority != null) {
+                authorities.add(authority);
+            }
+        });
+        if (current[0] != null) {
+            current[0].authorities = authorities.toArray(String[]::new);
+            consumer.accept(current[0]);
+        }
+    }
+
+    public record PatchedUser(UserDTO user, UserVersion version) {
+    }
+
+    // The incarnation is drawn from a sequence on insert, so a deleted and re-created user never repeats a version
+    public record UserVersion(long incarnation, long version) {
+    }
+}
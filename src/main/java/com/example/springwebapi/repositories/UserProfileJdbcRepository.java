@@ -0,0 +1,42 @@
+package com.example.springwebapi.repositories;
+
+import com.example.springwebapi.dtos.UserProfileDTO;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.*;
+
+@Repository
+public class UserProfileJdbcRepository {
+    private static final String ROLE_PREFIX = "ROLE_";
+    // Public so QueryPlanTests explains the query that is actually run
+    public static final String SELECT_PROFILES_SQL = "select u.username, u.enabled, a.authority, p.id as person_id, p.first_name, p.last_name from users u left join authorities a on a.username = u.username left join person p on p.id = (select min(id) from person where username = u.username) where u.username in (:usernames)";
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public UserProfileJdbcRepository(DataSource dataSource) {
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, UserProfileDTO> findAll(Collection<String> usernames) {
+        Map<String, UserProfileDTO> profiles = new HashMap<>();
+        Map<String, List<String>> authorities = new HashMap<>();
+        namedParameterJdbcTemplate.query(SELECT_PROFILES_SQL, Map.of("usernames", usernames), resultSet -> {
+            String username = resultSet.getString("username");
+            if (!profiles.containsKey(username)) {
+                long personId = resultSet.getLong("person_id");
+                boolean hasPerson = !resultSet.wasNull();
+                profiles.put(username, new UserProfileDTO(username, resultSet.getBoolean("enabled"), null, hasPerson ? personId : null, resultSet.getString("first_name"), resultSet.getString("last_name")));
+            }
+            String authority = resultSet.getString("authority");
+            List<String> userAuthorities = authorities.computeIfAbsent(username, key -> new ArrayList<>());
+            if (authority != null) {
+                userAuthorities.add(authority.startsWith(ROLE_PREFIX) ? authority.substring(ROLE_PREFIX.length()) : authority);
+            }
+        });
+        profiles.forEach((username, profile) -> profile.authorities = authorities.get(username).toArray(String[]::new));
+        return profiles;
+    }
+}
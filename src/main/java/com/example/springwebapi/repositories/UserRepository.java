@@ -2,9 +2,15 @@ package com.example.springwebapi.repositories;
 
 import com.example.springwebapi.entities.Person;
 import com.example.springwebapi.entities.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 
+@RepositoryRestResource(exported = false)
 public interface UserRepository extends PagingAndSortingRepository<User, String>, CrudRepository<User, String> {
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"), @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = UserEntityCache.QUERY_REGION)})
     User findByUsername(String username);
 }
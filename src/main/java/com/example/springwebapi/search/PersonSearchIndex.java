@@ -0,0 +1,156 @@
+package com.example.springwebapi.search;
+
+import com.example.springwebapi.dtos.PersonSearchResultDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class PersonSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(PersonSearchIndex.class);
+    private static final char SEPARATOR = '\u0000';
+    private static final long ENTRY_OVERHEAD_BYTES = 256;
+    private final ConcurrentSkipListMap<String, Entry> terms = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    // Persons deleted while the initial load runs, so rows read before the delete committed are not resurrected
+    private final Set<Long> tombstones = ConcurrentHashMap.newKeySet();
+    // Persons left out because of the memory budget; the index is complete again once all of them are deleted or fit
+    private final Set<Long> dropped = ConcurrentHashMap.newKeySet();
+    private final AtomicLong usedBytes = new AtomicLong();
+    private final long memoryBudgetBytes;
+    private volatile boolean loading;
+    private volatile boolean ready;
+
+    public PersonSearchIndex(long memoryBudgetBytes, MeterRegistry meterRegistry) {
+        this.memoryBudgetBytes = memoryBudgetBytes;
+        Gauge.builder("persons.search.index.entries", entries, Map::size).register(meterRegistry);
+        Gauge.builder("persons.search.index.bytes", usedBytes, AtomicLong::get).baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("persons.search.index.dropped", dropped, Set::size).register(meterRegistry);
+    }
+
+    public boolean isUsable() {
+        return ready && dropped.isEmpty();
+    }
+
+    public void beginLoad() {
+        loading = true;
+    }
+
+    public void markReady() {
+        endLoad();
+        ready = true;
+        logger.info("Person search index built with {} entries (~{} bytes{})", entries.size(), usedBytes.get(), dropped.isEmpty() ? "" : ", memory budget exceeded");
+    }
+
+    public void endLoad() {
+        loading = false;
+        tombstones.clear();
+    }
+
+    public void put(long id, String username, String firstName, String lastName) {
+        index(id, username, firstName, lastName, true);
+    }
+
+    public void putIfAbsent(long id, String username, String firstName, String lastName) {
+        index(id, username, firstName, lastName, false);
+    }
+
+    public void remove(long id) {
+        if (loading) {
+            tombstones.add(id);
+        }
+        entries.compute(id, (key, existing) -> {
+            if (existing != null) {
+                unlink(existing);
+            }
+            undrop(id);
+            return null;
+        });
+    }
+
+    public List<PersonSearchResultDTO> search(String prefix, int limit) {
+        String term = normalize(prefix);
+        ConcurrentNavigableMap<String, Entry> matches = terms.subMap(term, true, term + Character.MAX_VALUE, false);
+        Set<Long> seen = new HashSet<>();
+        List<PersonSearchResultDTO> results = new ArrayList<>(limit);
+        for (Entry entry : matches.values()) {
+            if (seen.add(entry.id())) {
+                results.add(new PersonSearchResultDTO(entry.id(), entry.username(), entry.firstName(), entry.lastName()));
+                if (results.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return results;
+    }
+
+    private void index(long id, String username, String firstName, String lastName, boolean replace) {
+        Entry entry = new Entry(id, username, firstName, lastName);
+        entries.compute(id, (key, existing) -> {
+            if (existing != null && !replace) {
+                return existing;
+            }
+            if (!replace && (tombstones.contains(id) || dropped.contains(id))) {
+                return null;
+            }
+            if (existing != null) {
+                unlink(existing);
+            }
+            if (usedBytes.get() + entry.estimatedBytes() > memoryBudgetBytes) {
+                if (dropped.add(id) && dropped.size() == 1) {
+                    logger.warn("Person search index exceeded its memory budget of {} bytes, falling back to database queries", memoryBudgetBytes);
+                }
+                return null;
+            }
+            undrop(id);
+            for (String term : entry.terms()) {
+                terms.put(term + SEPARATOR + id, entry);
+            }
+            usedBytes.addAndGet(entry.estimatedBytes());
+            return entry;
+        });
+    }
+
+    private void undrop(long id) {
+        if (dropped.remove(id) && dropped.isEmpty()) {
+            logger.info("Person search index is within its memory budget of {} bytes again", memoryBudgetBytes);
+        }
+    }
+
+    private void unlink(Entry entry) {
+        for (String term : entry.terms()) {
+            terms.remove(term + SEPARATOR + entry.id());
+        }
+        usedBytes.addAndGet(-entry.estimatedBytes());
+    }
+
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private record Entry(long id, String username, String firstName, String lastName) {
+        List<String> terms() {
+            List<String> terms = new ArrayList<>(3);
+            for (String value : new String[]{username, firstName, lastName}) {
+                if (value != null && !value.isEmpty() && !terms.contains(normalize(value))) {
+                    terms.add(normalize(value));
+                }
+            }
+            return terms;
+        }
+
+        long estimatedBytes() {
+            long chars = 0;
+            for (String value : new String[]{username, firstName, lastName}) {
+                chars += value == null ? 0 : value.length();
+            }
+            return ENTRY_OVERHEAD_BYTES + chars * 4;
+        }
+    }
+}
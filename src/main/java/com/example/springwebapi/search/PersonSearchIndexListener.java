@@ -0,0 +1,52 @@
+package com.example.springwebapi.search;
+
+import com.example.springwebapi.entities.Person;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Consumer;
+
+public class PersonSearchIndexListener {
+    private final ObjectProvider<PersonSearchIndex> personSearchIndex;
+
+    public PersonSearchIndexListener(ObjectProvider<PersonSearchIndex> personSearchIndex) {
+        this.personSearchIndex = personSearchIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Person person) {
+        long id = person.getId();
+        String username = person.getUsername();
+        String firstName = person.getFirstName();
+        String lastName = person.getLastName();
+        afterCommit(index -> index.put(id, username, firstName, lastName));
+    }
+
+    @PostRemove
+    public void onRemove(Person person) {
+        long id = person.getId();
+        afterCommit(index -> index.remove(id));
+    }
+
+    private void afterCommit(Consumer<PersonSearchIndex> action) {
+        PersonSearchIndex index = personSearchIndex.getIfAvailable();
+        if (index == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.accept(index);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.accept(index);
+            }
+        });
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.springwebapi.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+public class PersonSearchIndexLoader {
+    private static final Logger logger = LoggerFactory.getLogger(PersonSearchIndexLoader.class);
+    private static final String SELECT_PERSONS_SQL = "select id, username, first_name, last_name from person";
+    private final PersonSearchIndex personSearchIndex;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final TaskExecutor taskExecutor;
+
+    public PersonSearchIndexLoader(PersonSearchIndex personSearchIndex, DataSource dataSource, TransactionTemplate transactionTemplate, TaskExecutor taskExecutor, int fetchSize) {
+        this.personSearchIndex = personSearchIndex;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager(), transactionTemplate);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.taskExecutor = taskExecutor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        taskExecutor.execute(() -> {
+            personSearchIndex.beginLoad();
+            try {
+                readOnlyTransactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(SELECT_PERSONS_SQL, resultSet -> {
+                    personSearchIndex.putIfAbsent(resultSet.getLong("id"), resultSet.getString("username"), resultSet.getString("first_name"), resultSet.getString("last_name"));
+                }));
+                personSearchIndex.markReady();
+            } catch (RuntimeException e) {
+                personSearchIndex.endLoad();
+                logger.error("Person search index could not be built, falling back to database queries", e);
+            }
+        });
+    }
+}
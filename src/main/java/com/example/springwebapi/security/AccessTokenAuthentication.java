@@ -0,0 +1,26 @@
+package com.example.springwebapi.security;
+
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+
+public class AccessTokenAuthentication extends AbstractAuthenticationToken {
+    private final String username;
+
+    public AccessTokenAuthentication(String username, Collection<? extends GrantedAuthority> authorities) {
+        super(authorities);
+        this.username = username;
+        setAuthenticated(true);
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return username;
+    }
+}
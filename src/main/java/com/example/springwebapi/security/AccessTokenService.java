@@ -0,0 +1,109 @@
+package com.example.springwebapi.security;
+
+import com.example.springwebapi.events.UserChanged;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.stream.Collectors;
+
+public class AccessTokenService {
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private final SecretKey key;
+    private final Duration timeToLive;
+    private final Cache<String, Long> revocations;
+
+    public AccessTokenService(String secret, Duration timeToLive) {
+        this.key = secret == null || secret.isBlank() ? generateKey() : new SecretKeySpec(Base64.getDecoder().decode(secret), ALGORITHM);
+        this.timeToLive = timeToLive;
+        this.revocations = Caffeine.newBuilder().expireAfterWrite(timeToLive).build();
+    }
+
+    public Duration getTimeToLive() {
+        return timeToLive;
+    }
+
+    public String issue(Authentication authentication) {
+        long issuedAt = System.currentTimeMillis();
+        String authorities = authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.joining(","));
+        String payload = ENCODER.encodeToString(String.join("\n", authentication.getName(), Long.toString(issuedAt), Long.toString(issuedAt + timeToLive.toMillis()), authorities).getBytes(StandardCharsets.UTF_8));
+        return payload + "." + ENCODER.encodeToString(sign(payload));
+    }
+
+    public Authentication verify(String token) {
+        int separator = token.indexOf('.');
+        if (separator < 0) {
+            return null;
+        }
+        String payload = token.substring(0, separator);
+        byte[] signature;
+        String[] claims;
+        try {
+            signature = DECODER.decode(token.substring(separator + 1));
+            claims = new String(DECODER.decode(payload), StandardCharsets.UTF_8).split("\n", 4);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (claims.length != 4 || !MessageDigest.isEqual(signature, sign(payload))) {
+            return null;
+        }
+        String username = claims[0];
+        long issuedAt;
+        long expiresAt;
+        try {
+            issuedAt = Long.parseLong(claims[1]);
+            expiresAt = Long.parseLong(claims[2]);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (expiresAt <= System.currentTimeMillis()) {
+            return null;
+        }
+        Long revokedAt = revocations.getIfPresent(username);
+        if (revokedAt != null && issuedAt <= revokedAt) {
+            return null;
+        }
+        return new AccessTokenAuthentication(username, AuthorityUtils.commaSeparatedStringToAuthorityList(claims[3]));
+    }
+
+    public void revoke(String username) {
+        revocations.put(username, System.currentTimeMillis());
+    }
+
+    @EventListener
+    public void onUserChanged(UserChanged event) {
+        revoke(event.username());
+    }
+
+    private byte[] sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static SecretKey generateKey() {
+        try {
+            return KeyGenerator.getInstance(ALGORITHM).generateKey();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
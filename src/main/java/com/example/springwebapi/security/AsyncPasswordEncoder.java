@@ -0,0 +1,13 @@
+package com.example.springwebapi.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface AsyncPasswordEncoder extends PasswordEncoder {
+    CompletableFuture<String> encodeAsync(CharSequence rawPassword);
+
+    int getParallelism();
+
+    boolean hasIdleCapacity();
+}
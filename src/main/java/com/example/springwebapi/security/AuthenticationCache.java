@@ -0,0 +1,69 @@
+package com.example.springwebapi.security;
+
+import com.example.springwebapi.events.UserChanged;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.Authentication;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+
+public class AuthenticationCache {
+    private static final String ALGORITHM = "HmacSHA256";
+    private final Cache<String, Entry> cache;
+    private final SecretKey key;
+
+    public AuthenticationCache(long maximumSize, Duration timeToLive, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(timeToLive).recordStats().build();
+        try {
+            this.key = KeyGenerator.getInstance(ALGORITHM).generateKey();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "authentication");
+    }
+
+    public Authentication get(String username, String password) {
+        Entry entry = cache.getIfPresent(username);
+        if (entry == null || !MessageDigest.isEqual(entry.digest(), digest(username, password))) {
+            return null;
+        }
+        return entry.authentication();
+    }
+
+    public void put(String username, String password, Authentication authentication) {
+        cache.put(username, new Entry(digest(username, password), authentication));
+    }
+
+    public void evict(String username) {
+        cache.invalidate(username);
+    }
+
+    @EventListener
+    public void onUserChanged(UserChanged event) {
+        evict(event.username());
+    }
+
+    private byte[] digest(String username, String password) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Entry(byte[] digest, Authentication authentication) {
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.springwebapi.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BCryptCalibration {
+    private static final Logger logger = LoggerFactory.getLogger(BCryptCalibration.class);
+    private static final int MIN_STRENGTH = 4;
+    private static final int MAX_STRENGTH = 16;
+    private static final String SAMPLE_PASSWORD = "calibration-password";
+    private final int configuredStrength;
+    private final Duration latencyBudget;
+    private final int minStrength;
+    private final TaskExecutor taskExecutor;
+    private final AtomicInteger recommendedStrength = new AtomicInteger();
+
+    public BCryptCalibration(int configuredStrength, Duration latencyBudget, int minStrength, TaskExecutor taskExecutor, MeterRegistry meterRegistry) {
+        this.configuredStrength = configuredStrength;
+        this.latencyBudget = latencyBudget;
+        this.minStrength = minStrength;
+        this.taskExecutor = taskExecutor;
+        Gauge.builder("password.hashing.bcrypt.strength.recommended", recommendedStrength, AtomicInteger::get).register(meterRegistry);
+    }
+
+    // The strength is fleet-wide configuration, a node only reports what its own hardware would support
+    @EventListener(ApplicationReadyEvent.class)
+    public void calibrate() {
+        taskExecutor.execute(() -> {
+            int recommended = strength(latencyBudget, minStrength);
+            recommendedStrength.set(recommended);
+            if (recommended != configuredStrength) {
+                logger.info("Recommended bcrypt strength {} for a {} ms hashing budget differs from the configured strength {}", recommended, latencyBudget.toMillis(), configuredStrength);
+            }
+        });
+    }
+
+    public static int strength(Duration latencyBudget, int minStrength) {
+        int strength = MIN_STRENGTH;
+        measure(strength);
+        long nanos = measure(strength);
+        while (strength < MAX_STRENGTH && nanos * 2 <= latencyBudget.toNanos()) {
+            strength++;
+            nanos = measure(strength);
+        }
+        if (nanos > latencyBudget.toNanos() && strength > MIN_STRENGTH) {
+            strength--;
+        }
+        int calibrated = Math.max(strength, Math.clamp(minStrength, MIN_STRENGTH, MAX_STRENGTH));
+        logger.info("Calibrated bcrypt strength {} for a {} ms hashing budget", calibrated, latencyBudget.toMillis());
+        return calibrated;
+    }
+
+    private static long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long start = System.nanoTime();
+        encoder.encode(SAMPLE_PASSWORD);
+        return System.nanoTime() - start;
+    }
+}
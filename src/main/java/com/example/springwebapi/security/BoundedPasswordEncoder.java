@@ -0,0 +1,111 @@
+package com.example.springwebapi.security;
+
+import com.example.springwebapi.exceptions.PasswordHashingUnavailable;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BoundedPasswordEncoder implements AsyncPasswordEncoder, AutoCloseable {
+    private final PasswordEncoder delegate;
+    private final int threads;
+    private final ExecutorService executor;
+    // Counted by the tasks themselves, the pool still reports a worker as active after its future has completed
+    private final AtomicInteger unfinished = new AtomicInteger();
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.threads = threads;
+        ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-hashing-"), new ThreadPoolExecutor.AbortPolicy());
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, threadPoolExecutor, "password.hashing");
+        this.encodeTimer = Timer.builder("password.hashing.duration").tag("operation", "encode").publishPercentileHistogram().register(meterRegistry);
+        this.matchesTimer = Timer.builder("password.hashing.duration").tag("operation", "matches").publishPercentileHistogram().register(meterRegistry);
+        this.rejected = Counter.builder("password.hashing.rejected").register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> encodeTimer.record(() -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public CompletableFuture<String> encodeAsync(CharSequence rawPassword) {
+        unfinished.incrementAndGet();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return encodeTimer.record(() -> delegate.encode(rawPassword));
+                } finally {
+                    unfinished.decrementAndGet();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            unfinished.decrementAndGet();
+            rejected.increment();
+            return CompletableFuture.failedFuture(new PasswordHashingUnavailable("Password hashing capacity exhausted", e));
+        }
+    }
+
+    @Override
+    public int getParallelism() {
+        return threads;
+    }
+
+    @Override
+    public boolean hasIdleCapacity() {
+        return unfinished.get() < threads;
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        unfinished.incrementAndGet();
+        try {
+            future = executor.submit(() -> {
+                try {
+                    return task.call();
+                } finally {
+                    unfinished.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            unfinished.decrementAndGet();
+            rejected.increment();
+            throw new PasswordHashingUnavailable("Password hashing capacity exhausted", e);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            // Not cancelled: bcrypt ignores interrupts, and a cancelled queued task would never release its count
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingUnavailable("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.springwebapi.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.event.AuthenticationFailureBadCredentialsEvent;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class LoginThrottle {
+    private final Limit usernameLimit;
+    private final Limit addressLimit;
+    private final Counter usernameThrottled;
+    private final Counter addressThrottled;
+
+    public LoginThrottle(int usernameCapacity, Duration usernameRefill, int addressCapacity, Duration addressRefill, long maximumKeys, MeterRegistry meterRegistry) {
+        this.usernameLimit = new Limit(usernameCapacity, usernameRefill, maximumKeys);
+        this.addressLimit = new Limit(addressCapacity, addressRefill, maximumKeys);
+        this.usernameThrottled = Counter.builder("login.throttled").tag("key", "username").register(meterRegistry);
+        this.addressThrottled = Counter.builder("login.throttled").tag("key", "address").register(meterRegistry);
+    }
+
+    public Duration delay(String username, String address) {
+        long now = System.nanoTime();
+        long delay = usernameLimit.delay(username, now);
+        if (delay > 0) {
+            usernameThrottled.increment();
+            return Duration.ofNanos(delay);
+        }
+        delay = addressLimit.delay(address, now);
+        if (delay > 0) {
+            addressThrottled.increment();
+            return Duration.ofNanos(delay);
+        }
+        return Duration.ZERO;
+    }
+
+    public void recordFailure(String username, String address) {
+        long now = System.nanoTime();
+        usernameLimit.consume(username, now);
+        addressLimit.consume(address, now);
+    }
+
+    @EventListener
+    public void onAuthenticationFailure(AuthenticationFailureBadCredentialsEvent event) {
+        Authentication authentication = event.getAuthentication();
+        String address = authentication.getDetails() instanceof WebAuthenticationDetails details ? details.getRemoteAddress() : null;
+        recordFailure(authentication.getName(), address);
+    }
+
+    private static final class Limit {
+        private final Cache<String, AtomicLong> buckets;
+        private final long interval;
+        private final long tolerance;
+
+        private Limit(int capacity, Duration refill, long maximumKeys) {
+            this.interval = refill.toNanos() / capacity;
+            this.tolerance = interval * capacity;
+            this.buckets = Caffeine.newBuilder().maximumSize(maximumKeys).expireAfterAccess(refill).build();
+        }
+
+        private long delay(String key, long now) {
+            if (key == null) {
+                return 0;
+            }
+            AtomicLong bucket = buckets.getIfPresent(key);
+            if (bucket == null) {
+                return 0;
+            }
+            long next = Math.max(bucket.get(), now) + interval;
+            return Math.max(0, next - now - tolerance);
+        }
+
+        private void consume(String key, long now) {
+            if (key == null) {
+                return;
+            }
+            buckets.get(key, k -> new AtomicLong(now)).updateAndGet(arrival -> Math.min(Math.max(arrival, now) + interval, now + tolerance));
+        }
+    }
+}
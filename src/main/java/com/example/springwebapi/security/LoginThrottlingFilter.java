@@ -0,0 +1,56 @@
+package com.example.springwebapi.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.authentication.www.BasicAuthenticationConverter;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+public class LoginThrottlingFilter extends OncePerRequestFilter {
+    private static final String LOGIN_PATH = "/login";
+    private static final String USERNAME_PARAMETER = "username";
+    private final LoginThrottle loginThrottle;
+    private final BasicAuthenticationConverter basicAuthenticationConverter = new BasicAuthenticationConverter();
+
+    public LoginThrottlingFilter(LoginThrottle loginThrottle) {
+        this.loginThrottle = loginThrottle;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String username = attemptedUsername(request);
+        if (username == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        Duration delay = loginThrottle.delay(username, request.getRemoteAddr());
+        if (delay.isZero()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, delay.toSeconds() + (delay.toNanosPart() > 0 ? 1 : 0))));
+        response.getWriter().write("Too many failed login attempts");
+    }
+
+    private String attemptedUsername(HttpServletRequest request) {
+        if (HttpMethod.POST.matches(request.getMethod()) && LOGIN_PATH.equals(request.getServletPath())) {
+            return request.getParameter(USERNAME_PARAMETER);
+        }
+        try {
+            UsernamePasswordAuthenticationToken authentication = basicAuthenticationConverter.convert(request);
+            return authentication != null ? authentication.getName() : null;
+        } catch (AuthenticationException e) {
+            return null;
+        }
+    }
+}
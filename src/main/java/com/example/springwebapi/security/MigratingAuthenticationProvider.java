@@ -0,0 +1,26 @@
+package com.example.springwebapi.security;
+
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+public class MigratingAuthenticationProvider extends DaoAuthenticationProvider {
+    private final PasswordHashMigration passwordHashMigration;
+
+    public MigratingAuthenticationProvider(UserDetailsService userDetailsService, PasswordEncoder passwordEncoder, PasswordHashMigration passwordHashMigration) {
+        super(userDetailsService);
+        setPasswordEncoder(passwordEncoder);
+        this.passwordHashMigration = passwordHashMigration;
+    }
+
+    // The credentials are already verified, so the re-hash is handed off instead of failing or delaying the login
+    @Override
+    protected Authentication createSuccessAuthentication(Object principal, Authentication authentication, UserDetails user) {
+        if (passwordHashMigration != null && authentication.getCredentials() != null && getPasswordEncoder().upgradeEncoding(user.getPassword())) {
+            passwordHashMigration.migrate(user, authentication.getCredentials().toString());
+        }
+        return super.createSuccessAuthentication(principal, authentication, user);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.springwebapi.security;
+
+import com.example.springwebapi.repositories.UserEntityCache;
+import com.example.springwebapi.repositories.UserJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class PasswordHashMigration implements UserDetailsPasswordService {
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashMigration.class);
+    private final UserJdbcRepository userJdbcRepository;
+    private final UserEntityCache userEntityCache;
+    private final PasswordEncoder passwordEncoder;
+    private final TaskExecutor taskExecutor;
+    private final int fetchSize;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final AtomicLong pending = new AtomicLong();
+    private final Counter migrated;
+    private final Counter failed;
+    private final Counter skipped;
+
+    public PasswordHashMigration(UserJdbcRepository userJdbcRepository, UserEntityCache userEntityCache, PasswordEncoder passwordEncoder, TaskExecutor taskExecutor, int fetchSize, MeterRegistry meterRegistry) {
+        this.userJdbcRepository = userJdbcRepository;
+        this.userEntityCache = userEntityCache;
+        this.passwordEncoder = passwordEncoder;
+        this.taskExecutor = taskExecutor;
+        this.fetchSize = fetchSize;
+        this.migrated = Counter.builder("password.hashing.migrations").tag("outcome", "migrated").register(meterRegistry);
+        this.failed = Counter.builder("password.hashing.migrations").tag("outcome", "failed").register(meterRegistry);
+        this.skipped = Counter.builder("password.hashing.migrations").tag("outcome", "skipped").register(meterRegistry);
+        Gauge.builder("password.hashing.migrations.pending", pending, AtomicLong::get).register(meterRegistry);
+    }
+
+    public void migrate(UserDetails user, String rawPassword) {
+        // The authenticated principal has its password erased before the re-hash completes
+        UserDetails current = User.withUserDetails(user).build();
+        // Concurrent logins of the same user re-hash once
+        if (!inFlight.add(current.getUsername())) {
+            return;
+        }
+        // Re-hashes only use idle hashing capacity, so they never queue ahead of logins
+        if (passwordEncoder instanceof AsyncPasswordEncoder asyncPasswordEncoder && !asyncPasswordEncoder.hasIdleCapacity()) {
+            inFlight.remove(current.getUsername());
+            skipped.increment();
+            return;
+        }
+        CompletableFuture<String> encoded;
+        try {
+            encoded = passwordEncoder instanceof AsyncPasswordEncoder asyncPasswordEncoder
+                    ? asyncPasswordEncoder.encodeAsync(rawPassword)
+                    : CompletableFuture.supplyAsync(() -> passwordEncoder.encode(rawPassword), taskExecutor);
+        } catch (RejectedExecutionException e) {
+            encoded = CompletableFuture.failedFuture(e);
+        }
+        // Without spare hashing capacity the hash stays as it is and is migrated on a later login
+        encoded.whenCompleteAsync((newPassword, e) -> {
+            try {
+                if (e != null) {
+                    skipped.increment();
+                    logger.debug("Password hash of {} was not migrated", current.getUsername(), e);
+                    return;
+                }
+                updatePassword(current, newPassword);
+            } finally {
+                inFlight.remove(current.getUsername());
+            }
+        }, taskExecutor);
+    }
+
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        try {
+            if (userJdbcRepository.updatePassword(user.getUsername(), user.getPassword(), newPassword)) {
+                userEntityCache.evict(user.getUsername());
+                migrated.increment();
+                pending.updateAndGet(count -> Math.max(0, count - 1));
+            }
+        } catch (DataAccessException e) {
+            failed.increment();
+            logger.warn("Password hash of {} could not be migrated", user.getUsername(), e);
+            return user;
+        }
+        return User.withUserDetails(user).password(newPassword).build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void countPending() {
+        taskExecutor.execute(() -> {
+            try {
+                pending.set(userJdbcRepository.countPasswords(fetchSize, passwordEncoder::upgradeEncoding));
+            } catch (RuntimeException e) {
+                logger.error("Pending password hash migrations could not be counted", e);
+            }
+        });
+    }
+}
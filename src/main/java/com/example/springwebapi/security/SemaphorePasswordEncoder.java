@@ -0,0 +1,138 @@
+package com.example.springwebapi.security;
+
+import com.example.springwebapi.exceptions.PasswordHashingUnavailable;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+public class SemaphorePasswordEncoder implements AsyncPasswordEncoder, AutoCloseable {
+    private static final Tags EXECUTOR_TAGS = Tags.of("name", "password.hashing");
+    private static final Executor VIRTUAL_THREADS = task -> Thread.ofVirtual().name("password-hashing").start(task);
+    private final PasswordEncoder delegate;
+    private final int permits;
+    private final int queueCapacity;
+    private final Semaphore semaphore;
+    private final ExecutorService hashingThreads;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+    private final Timer idleTimer;
+
+    public SemaphorePasswordEncoder(PasswordEncoder delegate, int permits, int queueCapacity, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.permits = permits;
+        this.queueCapacity = queueCapacity;
+        this.semaphore = new Semaphore(permits, true);
+        // bcrypt never yields, so running it on a virtual thread would pin a carrier for the whole hash
+        this.hashingThreads = Executors.newFixedThreadPool(permits, new CustomizableThreadFactory("password-hashing-"));
+        this.encodeTimer = Timer.builder("password.hashing.duration").tag("operation", "encode").publishPercentileHistogram().register(meterRegistry);
+        this.matchesTimer = Timer.builder("password.hashing.duration").tag("operation", "matches").publishPercentileHistogram().register(meterRegistry);
+        this.rejected = Counter.builder("password.hashing.rejected").register(meterRegistry);
+        // Same executor.* meters that ExecutorServiceMetrics publishes for BoundedPasswordEncoder
+        this.idleTimer = Timer.builder("executor.idle").tags(EXECUTOR_TAGS).register(meterRegistry);
+        FunctionCounter.builder("executor.completed", completed, AtomicLong::get).tags(EXECUTOR_TAGS).baseUnit("tasks").register(meterRegistry);
+        Gauge.builder("executor.active", semaphore, s -> this.permits - s.availablePermits()).tags(EXECUTOR_TAGS).baseUnit("threads").register(meterRegistry);
+        Gauge.builder("executor.queued", waiting, AtomicInteger::get).tags(EXECUTOR_TAGS).baseUnit("tasks").register(meterRegistry);
+        Gauge.builder("executor.queue.remaining", waiting, w -> Math.max(0, this.queueCapacity - w.get())).tags(EXECUTOR_TAGS).baseUnit("tasks").register(meterRegistry);
+        Gauge.builder("executor.pool.size", () -> this.permits).tags(EXECUTOR_TAGS).baseUnit("threads").register(meterRegistry);
+        Gauge.builder("executor.pool.max", () -> this.permits).tags(EXECUTOR_TAGS).baseUnit("threads").register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> encodeTimer.record(() -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public CompletableFuture<String> encodeAsync(CharSequence rawPassword) {
+        return CompletableFuture.supplyAsync(() -> encode(rawPassword), VIRTUAL_THREADS);
+    }
+
+    @Override
+    public int getParallelism() {
+        return permits;
+    }
+
+    @Override
+    public boolean hasIdleCapacity() {
+        return semaphore.availablePermits() > 0 && waiting.get() == 0;
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void close() {
+        hashingThreads.shutdown();
+    }
+
+    private <T> T execute(Supplier<T> task) {
+        acquire();
+        try {
+            // Admitted callers park on the future, which releases their carrier while a platform thread hashes
+            Future<T> future = hashingThreads.submit(task::get);
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                future.cancel(true);
+                Thread.currentThread().interrupt();
+                throw new PasswordHashingUnavailable("Interrupted while waiting for password hashing", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        } finally {
+            completed.incrementAndGet();
+            semaphore.release();
+        }
+    }
+
+    private void acquire() {
+        if (semaphore.tryAcquire()) {
+            return;
+        }
+        if (waiting.incrementAndGet() > queueCapacity) {
+            waiting.decrementAndGet();
+            rejected.increment();
+            throw new PasswordHashingUnavailable("Password hashing capacity exhausted");
+        }
+        long start = System.nanoTime();
+        try {
+            semaphore.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingUnavailable("Interrupted while waiting for password hashing", e);
+        } finally {
+            waiting.decrementAndGet();
+            idleTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.springwebapi.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.provisioning.JdbcUserDetailsManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+public class TransactionalJdbcUserDetailsManager extends JdbcUserDetailsManager {
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final Timer foundTimer;
+    private final Timer notFoundTimer;
+
+    public TransactionalJdbcUserDetailsManager(DataSource dataSource, TransactionTemplate transactionTemplate, MeterRegistry meterRegistry) {
+        super(dataSource);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager(), transactionTemplate);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.foundTimer = Timer.builder("users.lookup").tag("outcome", "found").publishPercentileHistogram().register(meterRegistry);
+        this.notFoundTimer = Timer.builder("users.lookup").tag("outcome", "not_found").publishPercentileHistogram().register(meterRegistry);
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        long start = System.nanoTime();
+        try {
+            UserDetails userDetails = readOnlyTransactionTemplate.execute(status -> super.loadUserByUsername(username));
+            foundTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return userDetails;
+        } catch (UsernameNotFoundException e) {
+            notFoundTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean userExists(String username) {
+        return Boolean.TRUE.equals(readOnlyTransactionTemplate.execute(status -> super.userExists(username)));
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.springwebapi.security;
+
+import com.example.springwebapi.repositories.UserJdbcRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+import java.util.Set;
+
+public class UserSeeder {
+    private static final Logger logger = LoggerFactory.getLogger(UserSeeder.class);
+    private final UserJdbcRepository userJdbcRepository;
+    private final List<UserDetails> users;
+    private final TaskExecutor taskExecutor;
+
+    public UserSeeder(UserJdbcRepository userJdbcRepository, List<UserDetails> users, TaskExecutor taskExecutor) {
+        this.userJdbcRepository = userJdbcRepository;
+        this.users = users;
+        this.taskExecutor = taskExecutor;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void onApplicationStarted() {
+        if (taskExecutor == null) {
+            seed();
+            return;
+        }
+        taskExecutor.execute(() -> {
+            try {
+                seed();
+            } catch (RuntimeException e) {
+                logger.error("Seeding users failed", e);
+            }
+        });
+    }
+
+    public void seed() {
+        Set<String> existing = userJdbcRepository.createAll(users);
+        logger.info("Seeded {} of {} users", users.size() - existing.size(), users.size());
+    }
+}
@@ -0,0 +1,82 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+public class V4__Create_authority_view extends BaseJavaMigration {
+    private static final String SELECT_UNIQUE_CONSTRAINTS_SQL = "select tc.constraint_name from information_schema.table_constraints tc join information_schema.key_column_usage kcu on kcu.constraint_schema = tc.constraint_schema and kcu.constraint_name = tc.constraint_name where tc.constraint_type = 'UNIQUE' and tc.table_schema = ? and tc.table_name = ? group by tc.constraint_name having count(*) = 1 and max(kcu.column_name) = ?";
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        DatabaseMetaData metaData = connection.getMetaData();
+        String schema = connection.getSchema();
+        String authorities = identifier(metaData, "authorities");
+        String authority = identifier(metaData, "authority");
+        try (Statement statement = connection.createStatement()) {
+            // Databases built by ddl-auto=update have an authority table, referenced by and unique in authorities
+            if (isTable(metaData, schema, authority)) {
+                for (String constraint : foreignKeys(metaData, schema, authorities, authority)) {
+                    statement.execute("alter table authorities drop constraint " + quote(metaData, constraint));
+                }
+                for (String constraint : uniqueConstraints(connection, schema, authorities, authority)) {
+                    statement.execute("alter table authorities drop constraint " + quote(metaData, constraint));
+                }
+                statement.execute("drop table authority");
+            }
+            statement.execute("create or replace view authority as select distinct authority from authorities");
+        }
+    }
+
+    private static boolean isTable(DatabaseMetaData metaData, String schema, String table) throws SQLException {
+        try (ResultSet tables = metaData.getTables(null, schema, table, null)) {
+            while (tables.next()) {
+                if (tables.getString("TABLE_TYPE").endsWith("TABLE")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static List<String> foreignKeys(DatabaseMetaData metaData, String schema, String table, String referencedTable) throws SQLException {
+        List<String> constraints = new ArrayList<>();
+        try (ResultSet importedKeys = metaData.getImportedKeys(null, schema, table)) {
+            while (importedKeys.next()) {
+                String constraint = importedKeys.getString("FK_NAME");
+                if (referencedTable.equals(importedKeys.getString("PKTABLE_NAME")) && !constraints.contains(constraint)) {
+                    constraints.add(constraint);
+                }
+            }
+        }
+        return constraints;
+    }
+
+    private static List<String> uniqueConstraints(Connection connection, String schema, String table, String column) throws SQLException {
+        List<String> constraints = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_UNIQUE_CONSTRAINTS_SQL)) {
+            statement.setString(1, schema);
+            statement.setString(2, table);
+            statement.setString(3, column);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    constraints.add(resultSet.getString(1));
+                }
+            }
+        }
+        return constraints;
+    }
+
+    private static String identifier(DatabaseMetaData metaData, String name) throws SQLException {
+        return metaData.storesUpperCaseIdentifiers() ? name.toUpperCase() : name;
+    }
+
+    private static String quote(DatabaseMetaData metaData, String identifier) throws SQLException {
+        String quote = metaData.getIdentifierQuoteString();
+        return quote + identifier.replace(quote, quote + quote) + quote;
+    }
+}
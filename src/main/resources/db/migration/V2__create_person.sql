@@ -0,0 +1,11 @@
+create sequence if not exists person_seq start with 1 increment by 50;
+
+create table if not exists person (
+    id bigint not null primary key,
+    username varchar(255),
+    first_name varchar(255),
+    last_name varchar(255),
+    version bigint default 0 not null
+);
+
+create index if not exists ix_person_username on person (username);
@@ -0,0 +1,11 @@
+create table if not exists audit_event (
+    id bigint generated by default as identity primary key,
+    occurred_at timestamp(6) with time zone not null,
+    actor varchar(50),
+    action varchar(32) not null,
+    target varchar(50)
+);
+
+create index if not exists ix_audit_event_actor on audit_event (actor);
+
+create index if not exists ix_audit_event_target on audit_event (target);
@@ -0,0 +1,3 @@
+create sequence if not exists users_incarnation_seq;
+
+alter table users add column if not exists incarnation bigint default nextval('users_incarnation_seq') not null;
@@ -0,0 +1,15 @@
+alter table users add column if not exists version bigint default 0;
+
+update users set version = 0 where version is null;
+
+alter table users alter column version set default 0;
+
+alter table users alter column version set not null;
+
+alter table person add column if not exists version bigint default 0;
+
+update person set version = 0 where version is null;
+
+alter table person alter column version set default 0;
+
+alter table person alter column version set not null;
@@ -0,0 +1,142 @@
+package com.example.springwebapi;
+
+import com.example.springwebapi.dtos.TokenDTO;
+import com.example.springwebapi.dtos.UserBatchResultDTO;
+import com.example.springwebapi.dtos.UserDTO;
+import com.example.springwebapi.security.AsyncPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {"app.security.password-hashing.queue-capacity=1"})
+abstract class AbstractPasswordHashingTests {
+    private static final String ADMIN_USERNAME = "admin";
+    private static final String ADMIN_PASSWORD = "password";
+    private static final String TEST_USERNAME = "hashing_test";
+    // A syntactically valid bcrypt hash with a cost high enough to keep a hashing thread busy for seconds
+    private static final String SLOW_HASH = "{bcrypt}$2a$15$" + "a".repeat(53);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    protected PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void login_ExpectingStatusCode503WhenHashingIsSaturated() throws Exception {
+        double rejected = meterRegistry.get("password.hashing.rejected").counter().count();
+        int parallelism = ((AsyncPasswordEncoder) passwordEncoder).getParallelism();
+
+        // Occupy every hashing slot and the only queue slot
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<CompletableFuture<Boolean>> hashes = saturate(executor);
+
+            // Log in while hashing is saturated
+            ResponseEntity<String> response = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).getForEntity("http://localhost:{port}/user/{username}", String.class, port, ADMIN_USERNAME);
+
+            // Verify the request was shed with a retry hint instead of waiting
+            assertThat(response.getStatusCode().value()).isEqualTo(503);
+            assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+            assertThat(response.getBody()).isEqualTo("Password hashing capacity exhausted");
+            assertThat(meterRegistry.get("password.hashing.rejected").counter().count()).isEqualTo(rejected + 1);
+
+            // The occupying hashes still complete
+            for (CompletableFuture<Boolean> hash : hashes) {
+                assertThat(hash.get()).isFalse();
+            }
+        }
+
+        // Verify both encoders publish the same executor meters
+        assertThat(meterRegistry.get("executor.completed").tag("name", "password.hashing").functionCounter().count()).isGreaterThanOrEqualTo(parallelism + 1);
+        assertThat(meterRegistry.get("executor.pool.max").tag("name", "password.hashing").gauge().value()).isEqualTo(parallelism);
+        assertThat(meterRegistry.get("executor.queue.remaining").tag("name", "password.hashing").gauge().value()).isEqualTo(1);
+
+        // Capacity is available again once the queue has drained
+        assertThat(restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).getForEntity("http://localhost:{port}/user/{username}", String.class, port, ADMIN_USERNAME).getStatusCode().value()).isEqualTo(200);
+    }
+
+    @Test
+    void getUser_ExpectingResponseWhileHashingIsSaturated() throws Exception {
+        // Authenticate with a token, so the request itself needs no hashing
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).postForObject("http://localhost:{port}/token", null, TokenDTO.class, port).accessToken);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<CompletableFuture<Boolean>> hashes = saturate(executor);
+
+            // Read a user while every hashing slot is busy
+            long start = System.nanoTime();
+            ResponseEntity<String> response = restTemplate.exchange("http://localhost:{port}/user/{username}", HttpMethod.GET, new HttpEntity<>(headers), String.class, port, ADMIN_USERNAME);
+
+            // Verify the request was served before the hashes finished
+            assertThat(response.getStatusCode().value()).isEqualTo(200);
+            assertThat(hashes.get(0)).isNotDone();
+            assertThat(System.nanoTime() - start).isLessThan(1_000_000_000L);
+
+            CompletableFuture.allOf(hashes.toArray(CompletableFuture[]::new)).join();
+        }
+    }
+
+    @Test
+    void createUsers_ExpectingUnavailableRowsWhenHashingIsSaturated() throws Exception {
+        // Authenticate before saturating
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).postForObject("http://localhost:{port}/token", null, TokenDTO.class, port).accessToken);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<CompletableFuture<Boolean>> hashes = saturate(executor);
+
+            // Install a batch while hashing is saturated
+            UserDTO[] userDTOs = new UserDTO[]{new UserDTO(TEST_USERNAME, ADMIN_PASSWORD, true, new String[]{"USER"})};
+            ResponseEntity<UserBatchResultDTO[]> response = restTemplate.exchange("http://localhost:{port}/users/batch", HttpMethod.POST, new HttpEntity<>(userDTOs, headers), UserBatchResultDTO[].class, port);
+
+            // Verify the row is reported instead of failing the batch
+            assertThat(response.getStatusCode().value()).isEqualTo(200);
+            assertThat(response.getBody()).hasSize(1);
+            assertThat(response.getBody()[0].status).isEqualTo(UserBatchResultDTO.UNAVAILABLE);
+            assertThat(restTemplate.exchange("http://localhost:{port}/user/{username}", HttpMethod.GET, new HttpEntity<>(headers), String.class, port, TEST_USERNAME).getStatusCode().value()).isEqualTo(404);
+
+            CompletableFuture.allOf(hashes.toArray(CompletableFuture[]::new)).join();
+        }
+    }
+
+    // Runs slow hashes on virtual threads until every hashing slot and the only queue slot are taken
+    private List<CompletableFuture<Boolean>> saturate(ExecutorService executor) throws InterruptedException {
+        int parallelism = ((AsyncPasswordEncoder) passwordEncoder).getParallelism();
+        List<CompletableFuture<Boolean>> hashes = new ArrayList<>();
+        for (int i = 0; i < parallelism; i++) {
+            hashes.add(CompletableFuture.supplyAsync(() -> passwordEncoder.matches(ADMIN_PASSWORD, SLOW_HASH), executor));
+        }
+        awaitGauge("executor.active", parallelism);
+        hashes.add(CompletableFuture.supplyAsync(() -> passwordEncoder.matches(ADMIN_PASSWORD, SLOW_HASH), executor));
+        awaitGauge("executor.queued", 1);
+        return hashes;
+    }
+
+    private void awaitGauge(String name, double value) throws InterruptedException {
+        for (int i = 0; i < 500 && meterRegistry.get(name).tag("name", "password.hashing").gauge().value() < value; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(meterRegistry.get(name).tag("name", "password.hashing").gauge().value()).isEqualTo(value);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.springwebapi;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+class AotConditionsTests {
+    @Test
+    void record_ExpectingConditionOutcomes() throws IOException {
+        // Build with a replica and the authentication cache, leaving the rest at their defaults
+        MockEnvironment environment = new MockEnvironment().withProperty("app.datasource.replica.jdbc-url", "jdbc:h2:mem:replica").withProperty("app.security.authentication-cache.enabled", "TRUE");
+
+        Properties recorded = load(AotConditions.record(environment));
+
+        // Verify the outcomes follow @ConditionalOnProperty
+        assertThat(recorded).hasSize(AotConditions.CONDITIONS.size());
+        assertThat(recorded.getProperty("app.datasource.replica.jdbc-url")).isEqualTo("true");
+        assertThat(recorded.getProperty("app.security.authentication-cache.enabled")).isEqualTo("true");
+        assertThat(recorded.getProperty("app.security.login-throttle.enabled")).isEqualTo("true");
+        assertThat(recorded.getProperty("app.security.password-hashing.calibration.enabled")).isEqualTo("false");
+        assertThat(recorded.getProperty("spring.threads.virtual.enabled")).isEqualTo("false");
+    }
+
+    @Test
+    void verify_AcceptsValuesWithTheSameOutcome() throws IOException {
+        Properties recorded = load(AotConditions.record(new MockEnvironment().withProperty("app.datasource.replica.jdbc-url", "jdbc:h2:mem:replica")));
+
+        // A different replica URL and an explicit default select the same beans
+        MockEnvironment runtime = new MockEnvironment().withProperty("app.datasource.replica.jdbc-url", "jdbc:h2:mem:other").withProperty("app.security.login-throttle.enabled", "true");
+
+        assertThatCode(() -> AotConditions.verify(recorded, runtime)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void verify_ExpectingIllegalStateExceptionForConflictingValues() throws IOException {
+        Properties recorded = load(AotConditions.record(new MockEnvironment()));
+
+        // Enable virtual threads and disable the login throttle after the build
+        MockEnvironment runtime = new MockEnvironment().withProperty("spring.threads.virtual.enabled", "true").withProperty("app.security.login-throttle.enabled", "false");
+
+        assertThatIllegalStateException().isThrownBy(() -> AotConditions.verify(recorded, runtime))
+                .withMessageContaining("spring.threads.virtual.enabled (disabled at build time)")
+                .withMessageContaining("app.security.login-throttle.enabled (enabled at build time)");
+    }
+
+    private static Properties load(String outcomes) throws IOException {
+        Properties properties = new Properties();
+        properties.load(new StringReader(outcomes));
+        return properties;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.springwebapi;
+
+import com.example.springwebapi.repositories.UserJdbcRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.provisioning.UserDetailsManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ApplicationDataSourceTests {
+    private static final String TEST_USERNAME = "datasource_test";
+
+    @Autowired
+    private UserDetailsManager userDetailsManager;
+
+    @Autowired
+    private UserJdbcRepository userJdbcRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void loadUserByUsername_UsesReplica() {
+        long primaryCount = connectionCount("primary");
+        long replicaCount = connectionCount("replica");
+
+        userDetailsManager.loadUserByUsername("admin");
+
+        assertThat(connectionCount("primary")).isEqualTo(primaryCount);
+        assertThat(connectionCount("replica")).isEqualTo(replicaCount + 1);
+    }
+
+    @Test
+    void createUser_UsesPrimary() {
+        long primaryCount = connectionCount("primary");
+        long replicaCount = connectionCount("replica");
+
+        userDetailsManager.createUser(User.builder().username(TEST_USERNAME).password("{noop}password").roles("USER").build());
+        userDetailsManager.deleteUser(TEST_USERNAME);
+
+        assertThat(connectionCount("primary")).isGreaterThan(primaryCount);
+        assertThat(connectionCount("replica")).isEqualTo(replicaCount);
+    }
+
+    @Test
+    void findPrimaryVersionAndDelete_UsePrimary() {
+        userDetailsManager.createUser(User.builder().username(TEST_USERNAME).password("{noop}password").roles("USER").build());
+        long primaryCount = connectionCount("primary");
+        long replicaCount = connectionCount("replica");
+
+        assertThat(userJdbcRepository.findPrimaryVersion(TEST_USERNAME)).isNotNull();
+        assertThat(userJdbcRepository.delete(TEST_USERNAME)).isTrue();
+        assertThat(userJdbcRepository.delete(TEST_USERNAME)).isFalse();
+
+        assertThat(connectionCount("primary")).isEqualTo(primaryCount + 3);
+        assertThat(connectionCount("replica")).isEqualTo(replicaCount);
+    }
+
+    private long connectionCount(String pool) {
+        return meterRegistry.get("hikaricp.connections.usage").tag("pool", pool).timer().count();
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.springwebapi;
+
+import com.example.springwebapi.audit.AuditLog;
+import com.example.springwebapi.dtos.AuditEventDTO;
+import com.example.springwebapi.dtos.UserDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class AuditControllerTests {
+    private static final String ADMIN_USERNAME = "admin";
+    private static final String ADMIN_PASSWORD = "password";
+    private static final String USER_USERNAME = "user";
+    private static final String USER_PASSWORD = "password";
+    private static final String TEST_USERNAME = "audit_test";
+    private static final String TEST_PASSWORD = "password";
+    private static final String[] USER_ROLES = new String[]{"USER"};
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void getAuditEvents() throws InterruptedException {
+        // Install and delete test user
+        UserDTO userDTO = new UserDTO(TEST_USERNAME, TEST_PASSWORD, true, USER_ROLES);
+        restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).postForObject("http://localhost:{port}/user", userDTO, UserDTO.class, port);
+        restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).delete("http://localhost:{port}/user/{username}", port, TEST_USERNAME);
+
+        // Wait for the background writer to flush both events
+        AuditEventDTO[] events = new AuditEventDTO[0];
+        for (int i = 0; i < 50 && events.length < 2; i++) {
+            Thread.sleep(100);
+            events = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).getForObject("http://localhost:{port}/audit/events?target={target}", AuditEventDTO[].class, port, TEST_USERNAME);
+        }
+
+        // Verify events, most recent first
+        assertThat(Arrays.stream(events).map(event -> event.action)).containsExactly(AuditEventDTO.USER_DELETED, AuditEventDTO.USER_CREATED);
+        assertThat(Arrays.stream(events).map(event -> event.actor)).containsOnly(ADMIN_USERNAME);
+        assertThat(events[0].occurredAt).isNotNull();
+    }
+
+    @Test
+    void getAuditEvents_ExpectingValidEventsNextToOversizedOnes() throws InterruptedException {
+        String oversizedUsername = "audit_oversized_" + "x".repeat(200);
+        String validTarget = "audit_valid";
+        double failed = meterRegistry.get("audit.events.failed").counter().count();
+
+        // Fail a login with an oversized username, then queue an unstorable event between two valid ones
+        assertThat(restTemplate.withBasicAuth(oversizedUsername, TEST_PASSWORD).getForEntity("http://localhost:{port}/user/{username}", String.class, port, ADMIN_USERNAME).getStatusCode().value()).isEqualTo(401);
+        auditLog.record(ADMIN_USERNAME, AuditEventDTO.USER_CREATED, validTarget);
+        auditLog.record(ADMIN_USERNAME, "x".repeat(100), validTarget);
+        auditLog.record(ADMIN_USERNAME, AuditEventDTO.USER_DELETED, validTarget);
+
+        // Wait for the background writer to flush the valid events
+        AuditEventDTO[] events = new AuditEventDTO[0];
+        for (int i = 0; i < 50 && events.length < 2; i++) {
+            Thread.sleep(100);
+            events = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).getForObject("http://localhost:{port}/audit/events?target={target}", AuditEventDTO[].class, port, validTarget);
+        }
+
+        // Verify only the unstorable event was dropped and the oversized username was truncated
+        assertThat(Arrays.stream(events).map(event -> event.action)).containsExactly(AuditEventDTO.USER_DELETED, AuditEventDTO.USER_CREATED);
+        assertThat(meterRegistry.get("audit.events.failed").counter().count()).isEqualTo(failed + 1);
+        AuditEventDTO[] loginEvents = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).getForObject("http://localhost:{port}/audit/events?actor={actor}", AuditEventDTO[].class, port, oversizedUsername.substring(0, 50));
+        assertThat(Arrays.stream(loginEvents).map(event -> event.action)).containsExactly(AuditEventDTO.LOGIN_FAILED);
+    }
+
+    @Test
+    void getAuditEvents_ExpectingStatusCode403ForNonAdmin() {
+        ResponseEntity<String> responseEntity = restTemplate.withBasicAuth(USER_USERNAME, USER_PASSWORD).getForEntity("http://localhost:{port}/audit/events", String.class, port);
+        assertThat(responseEntity.getStatusCode().value()).isEqualTo(403);
+    }
+}
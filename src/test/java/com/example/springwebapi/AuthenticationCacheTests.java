@@ -0,0 +1,126 @@
+package com.example.springwebapi;
+
+import com.example.springwebapi.dtos.UserDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {"app.security.authentication-cache.enabled=true", "app.security.login-throttle.enabled=false"})
+class AuthenticationCacheTests {
+    private static final String ADMIN_USERNAME = "admin";
+    private static final String ADMIN_PASSWORD = "password";
+    private static final String TEST_USERNAME = "cache_test";
+    private static final String TEST_PASSWORD = "password";
+    private static final String[] USER_ROLES = new String[]{"USER"};
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).delete("http://localhost:{port}/user/{username}", port, TEST_USERNAME);
+    }
+
+    @Test
+    void authenticate_ExpectingCacheHitWithoutPasswordHashing() {
+        // Install test user and warm the cache
+        createTestUser(TEST_PASSWORD);
+        authenticate(TEST_USERNAME, TEST_PASSWORD);
+        double hits = cacheGets("hit");
+        long matches = passwordMatches();
+
+        // Authenticate again with the same credentials
+        Authentication authentication = authenticate(TEST_USERNAME, TEST_PASSWORD);
+
+        // Verify the cached authentication was returned without hashing
+        assertThat(authentication.isAuthenticated()).isTrue();
+        assertThat(authentication.getName()).isEqualTo(TEST_USERNAME);
+        assertThat(cacheGets("hit")).isEqualTo(hits + 1);
+        assertThat(passwordMatches()).isEqualTo(matches);
+    }
+
+    @Test
+    void authenticate_ExpectingBadCredentialsExceptionForWrongPasswordAfterCacheHit() {
+        // Install test user and warm the cache
+        createTestUser(TEST_PASSWORD);
+        authenticate(TEST_USERNAME, TEST_PASSWORD);
+        authenticate(TEST_USERNAME, TEST_PASSWORD);
+
+        // Verify a wrong password is not answered from the cache
+        assertThatThrownBy(() -> authenticate(TEST_USERNAME, TEST_PASSWORD + "_wrong")).isInstanceOf(BadCredentialsException.class);
+
+        // The cached entry is still valid for the right password
+        assertThat(authenticate(TEST_USERNAME, TEST_PASSWORD).isAuthenticated()).isTrue();
+    }
+
+    @Test
+    void authenticate_ExpectingOldPasswordRejectedAfterUserChanged() {
+        // Install test user and warm the cache
+        createTestUser(TEST_PASSWORD);
+        authenticate(TEST_USERNAME, TEST_PASSWORD);
+
+        // Change the password
+        UserDTO userDTO = new UserDTO(TEST_USERNAME, TEST_PASSWORD + "_new", true, USER_ROLES);
+        ResponseEntity<String> response = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).exchange("http://localhost:{port}/user/{username}", HttpMethod.PUT, new HttpEntity<>(userDTO), String.class, port, TEST_USERNAME);
+        assertThat(response.getStatusCode().value()).isEqualTo(200);
+
+        // Verify the cached entry was invalidated
+        assertThatThrownBy(() -> authenticate(TEST_USERNAME, TEST_PASSWORD)).isInstanceOf(BadCredentialsException.class);
+        assertThat(authenticate(TEST_USERNAME, TEST_PASSWORD + "_new").isAuthenticated()).isTrue();
+    }
+
+    @Test
+    void authenticate_ExpectingDisabledUserRejectedAfterUserChanged() {
+        // Install test user and warm the cache
+        createTestUser(TEST_PASSWORD);
+        authenticate(TEST_USERNAME, TEST_PASSWORD);
+
+        // Disable the user
+        UserDTO userDTO = new UserDTO(TEST_USERNAME, TEST_PASSWORD, false, USER_ROLES);
+        restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).put("http://localhost:{port}/user/{username}", userDTO, port, TEST_USERNAME);
+
+        // Verify the cached authentication is no longer returned
+        assertThatThrownBy(() -> authenticate(TEST_USERNAME, TEST_PASSWORD)).isInstanceOf(DisabledException.class);
+    }
+
+    private void createTestUser(String password) {
+        UserDTO userDTO = new UserDTO(TEST_USERNAME, password, true, USER_ROLES);
+        restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).postForObject("http://localhost:{port}/user", userDTO, UserDTO.class, port);
+    }
+
+    private Authentication authenticate(String username, String password) {
+        return authenticationManager.authenticate(UsernamePasswordAuthenticationToken.unauthenticated(username, password));
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "authentication").tag("result", result).functionCounter().count();
+    }
+
+    private long passwordMatches() {
+        return meterRegistry.get("password.hashing.duration").tag("operation", "matches").timer().count();
+    }
+}
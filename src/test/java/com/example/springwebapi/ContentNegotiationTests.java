@@ -0,0 +1,133 @@
+package com.example.springwebapi;
+
+import com.example.springwebapi.controllers.PersonBinaryController;
+import com.example.springwebapi.dtos.UserDTO;
+import com.example.springwebapi.entities.Person;
+import com.example.springwebapi.repositories.PersonRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ContentNegotiationTests {
+    private static final String ADMIN_USERNAME = "admin";
+    private static final String ADMIN_PASSWORD = "password";
+    private static final String TEST_USERNAME = "binary_test";
+    private static final String TEST_PREFIX = "binary_test_";
+    private static final MediaType CBOR = MediaType.APPLICATION_CBOR;
+    private static final MediaType SMILE = MediaType.parseMediaType(PersonBinaryController.APPLICATION_SMILE_VALUE);
+
+    private final ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.cbor().build();
+    private final ObjectMapper smileMapper = Jackson2ObjectMapperBuilder.smile().build();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @AfterEach
+    void tearDown() {
+        restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).delete("http://localhost:{port}/user/{username}", port, TEST_USERNAME);
+        personRepository.deleteAll(StreamSupport.stream(personRepository.findAll().spliterator(), false).filter(person -> person.getUsername() != null && person.getUsername().startsWith(TEST_PREFIX)).toList());
+    }
+
+    @Test
+    void createAndGetUser_AsCbor() throws Exception {
+        // Install test user with a CBOR request body
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(CBOR);
+        headers.setAccept(List.of(CBOR));
+        byte[] body = cborMapper.writeValueAsBytes(new UserDTO(TEST_USERNAME, "password", true, new String[]{"USER"}));
+        ResponseEntity<byte[]> created = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).exchange("http://localhost:{port}/user", HttpMethod.POST, new HttpEntity<>(body, headers), byte[].class, port);
+
+        // Get user by username as CBOR and as JSON
+        ResponseEntity<byte[]> cbor = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).exchange("http://localhost:{port}/user/{username}", HttpMethod.GET, new HttpEntity<>(headers), byte[].class, port, TEST_USERNAME);
+        ResponseEntity<byte[]> json = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).getForEntity("http://localhost:{port}/user/{username}", byte[].class, port, TEST_USERNAME);
+
+        // Verify response
+        assertThat(created.getStatusCode().value()).isEqualTo(200);
+        assertThat(created.getHeaders().getContentType()).isEqualTo(CBOR);
+        assertThat(cbor.getHeaders().getContentType()).isEqualTo(CBOR);
+        UserDTO userDTO = cborMapper.readValue(cbor.getBody(), UserDTO.class);
+        assertThat(userDTO.username).isEqualTo(TEST_USERNAME);
+        assertThat(userDTO.authorities).containsExactly("USER");
+        assertThat(cbor.getBody().length).isLessThan(json.getBody().length);
+    }
+
+    @Test
+    void getPersons_AsCborAndSmile() throws Exception {
+        // Install test persons
+        for (int i = 0; i < 3; i++) {
+            Person person = new Person();
+            person.setUsername(TEST_PREFIX + i);
+            person.setFirstName("Binary" + i);
+            person.setLastName("Person");
+            personRepository.save(person);
+        }
+
+        // Get persons as CBOR, Smile and HAL JSON
+        byte[] cbor = getPersons(CBOR).getBody();
+        byte[] smile = getPersons(SMILE).getBody();
+        byte[] json = getPersons(MediaType.parseMediaType("application/hal+json")).getBody();
+
+        // Verify the HAL structure survives the binary encodings
+        JsonNode fromCbor = cborMapper.readTree(cbor);
+        JsonNode fromSmile = smileMapper.readTree(smile);
+        assertThat(fromCbor.path("_embedded").path("persons").isArray()).isTrue();
+        assertThat(fromCbor.path("_links").has("self")).isTrue();
+        assertThat(fromSmile).isEqualTo(fromCbor);
+        assertThat(cbor.length).isLessThan(json.length);
+        assertThat(smile.length).isLessThan(json.length);
+    }
+
+    @Test
+    void getPerson_AsCborExpectingStatusCode304ForMatchingETag() {
+        // Install test person
+        Person person = new Person();
+        person.setUsername(TEST_PREFIX + "etag");
+        person = personRepository.save(person);
+
+        // Get person by id as CBOR and repeat with the returned ETag
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(CBOR));
+        ResponseEntity<byte[]> cbor = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).exchange("http://localhost:{port}/persons/{id}", HttpMethod.GET, new HttpEntity<>(headers), byte[].class, port, person.getId());
+        headers.setIfNoneMatch(cbor.getHeaders().getETag());
+        ResponseEntity<byte[]> notModified = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).exchange("http://localhost:{port}/persons/{id}", HttpMethod.GET, new HttpEntity<>(headers), byte[].class, port, person.getId());
+
+        // Verify response
+        assertThat(cbor.getStatusCode().value()).isEqualTo(200);
+        assertThat(cbor.getHeaders().getContentType()).isEqualTo(CBOR);
+        assertThat(cbor.getHeaders().getETag()).isEqualTo("\"0\"");
+        assertThat(notModified.getStatusCode().value()).isEqualTo(304);
+        assertThat(notModified.getBody()).isNull();
+    }
+
+    private ResponseEntity<byte[]> getPersons(MediaType mediaType) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(mediaType));
+        ResponseEntity<byte[]> responseEntity = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).exchange("http://localhost:{port}/persons?size=50", HttpMethod.GET, new HttpEntity<>(headers), byte[].class, port);
+        assertThat(responseEntity.getStatusCode().value()).isEqualTo(200);
+        assertThat(responseEntity.getHeaders().getContentType().isCompatibleWith(mediaType)).isTrue();
+        return responseEntity;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.springwebapi;
+
+import com.example.springwebapi.dtos.UserDTO;
+import com.example.springwebapi.entities.Person;
+import com.example.springwebapi.repositories.PersonRepository;
+import com.example.springwebapi.repositories.UserRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class EntityCacheTests {
+    private static final String ADMIN_USERNAME = "admin";
+    private static final String ADMIN_PASSWORD = "password";
+    private static final String TEST_USERNAME = "cache_test";
+    private static final String TEST_PASSWORD = "password";
+    private static final String[] USER_ROLES = new String[]{"USER"};
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        Person person = personRepository.findByUsername(TEST_USERNAME);
+        if (person != null) {
+            personRepository.delete(person);
+        }
+        restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).delete("http://localhost:{port}/user/{username}", port, TEST_USERNAME);
+    }
+
+    @Test
+    void findPersonByUsername_ServedFromQueryCache() {
+        // Install test person
+        Person person = new Person();
+        person.setUsername(TEST_USERNAME);
+        personRepository.save(person);
+
+        // Look the person up twice
+        double hits = queryCacheHits();
+        personRepository.findByUsername(TEST_USERNAME);
+        Person cached = personRepository.findByUsername(TEST_USERNAME);
+
+        // Verify the second lookup hit the query cache
+        assertThat(cached.getUsername()).isEqualTo(TEST_USERNAME);
+        assertThat(queryCacheHits()).isGreaterThan(hits);
+    }
+
+    @Test
+    void findUserByUsername_ReflectsUserControllerWrites() {
+        // Cache the missing user
+        assertThat(userRepository.findByUsername(TEST_USERNAME)).isNull();
+
+        // Install test user through the JDBC-backed controller
+        UserDTO userDTO = new UserDTO(TEST_USERNAME, TEST_PASSWORD, true, USER_ROLES);
+        restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).postForObject("http://localhost:{port}/user", userDTO, UserDTO.class, port);
+        assertThat(userRepository.findByUsername(TEST_USERNAME).isEnabled()).isTrue();
+
+        // Update test user
+        userDTO.enabled = false;
+        restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).put("http://localhost:{port}/user/{username}", userDTO, port, TEST_USERNAME);
+        assertThat(userRepository.findByUsername(TEST_USERNAME).isEnabled()).isFalse();
+
+        // Delete test user
+        restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).delete("http://localhost:{port}/user/{username}", port, TEST_USERNAME);
+        assertThat(userRepository.findByUsername(TEST_USERNAME)).isNull();
+    }
+
+    private double queryCacheHits() {
+        FunctionCounter counter = meterRegistry.find("hibernate.cache.query.requests").tag("result", "hit").functionCounter();
+        assertThat(counter).isNotNull();
+        return counter.count();
+    }
+}
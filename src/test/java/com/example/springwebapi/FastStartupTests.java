@@ -0,0 +1,44 @@
+package com.example.springwebapi;
+
+import com.example.springwebapi.dtos.UserDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("fast-startup")
+class FastStartupTests {
+    private static final String ADMIN_USERNAME = "admin";
+    private static final String ADMIN_PASSWORD = "password";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void getUser_AfterAsynchronousSeeding() throws InterruptedException {
+        // Wait for the seeded admin account to become available
+        ResponseEntity<UserDTO> responseEntity = null;
+        for (int i = 0; i < 50 && (responseEntity == null || responseEntity.getStatusCode().value() != 200); i++) {
+            Thread.sleep(100);
+            responseEntity = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).getForEntity("http://localhost:{port}/user/{username}", UserDTO.class, port, ADMIN_USERNAME);
+        }
+
+        // Verify user data and time-to-first-request gauge
+        assertThat(responseEntity.getStatusCode().value()).isEqualTo(200);
+        assertThat(responseEntity.getBody().username).isEqualTo(ADMIN_USERNAME);
+        assertThat(meterRegistry.get("application.first.request.time").timeGauge().value()).isPositive();
+    }
+}
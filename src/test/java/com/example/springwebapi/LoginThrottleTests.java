@@ -0,0 +1,64 @@
+package com.example.springwebapi;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class LoginThrottleTests {
+    private static final String ADMIN_USERNAME = "admin";
+    private static final String ADMIN_PASSWORD = "password";
+    private static final String TEST_USERNAME = "throttle_test";
+    private static final int USERNAME_CAPACITY = 10;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void login_ExpectingStatusCode429AfterRepeatedFailures() {
+        // Exhaust the failed login budget for the test username
+        for (int i = 0; i < USERNAME_CAPACITY; i++) {
+            assertThat(formLogin(TEST_USERNAME, "wrong").getStatusCode().value()).isNotEqualTo(429);
+        }
+        double throttled = meterRegistry.get("login.throttled").tag("key", "username").counter().count();
+
+        // Try once more with form login and Basic authentication
+        ResponseEntity<String> formResponse = formLogin(TEST_USERNAME, "wrong");
+        ResponseEntity<String> basicResponse = restTemplate.withBasicAuth(TEST_USERNAME, "wrong").getForEntity("http://localhost:{port}/user/{username}", String.class, port, ADMIN_USERNAME);
+
+        // Verify responses and counter
+        assertThat(formResponse.getStatusCode().value()).isEqualTo(429);
+        assertThat(formResponse.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isNotBlank();
+        assertThat(basicResponse.getStatusCode().value()).isEqualTo(429);
+        assertThat(meterRegistry.get("login.throttled").tag("key", "username").counter().count()).isEqualTo(throttled + 2);
+
+        // Other usernames are unaffected
+        assertThat(restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).getForEntity("http://localhost:{port}/user/{username}", String.class, port, ADMIN_USERNAME).getStatusCode().value()).isEqualTo(200);
+    }
+
+    private ResponseEntity<String> formLogin(String username, String password) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+        MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
+        form.add("username", username);
+        form.add("password", password);
+        return restTemplate.postForEntity("http://localhost:{port}/login", new HttpEntity<>(form, headers), String.class, port);
+    }
+}
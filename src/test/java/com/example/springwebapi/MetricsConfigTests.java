@@ -0,0 +1,51 @@
+package com.example.springwebapi;
+
+import com.example.springwebapi.dtos.UserDTO;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability(tracing = false)
+class MetricsConfigTests {
+    private static final String ADMIN_USERNAME = "admin";
+    private static final String ADMIN_PASSWORD = "password";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void getUser_RecordsHotPathMetrics() {
+        restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).getForObject("http://localhost:{port}/user/{username}", UserDTO.class, port, ADMIN_USERNAME);
+
+        // Authentication lookup plus controller lookup, two queries each
+        DistributionSummary statements = meterRegistry.get("http.server.requests.statements").tag("uri", "/user/{username}").tag("outcome", "SUCCESS").summary();
+        assertThat(statements.count()).isPositive();
+        assertThat(statements.max()).isGreaterThanOrEqualTo(4);
+        assertThat(meterRegistry.get("http.server.handler").tag("endpoint", "UserController.getUser").tag("outcome", "SUCCESS").timer().count()).isPositive();
+        assertThat(meterRegistry.get("users.lookup").tag("outcome", "found").timer().count()).isPositive();
+        assertThat(meterRegistry.get("password.hashing.duration").tag("operation", "matches").timer().count()).isPositive();
+    }
+
+    @Test
+    void prometheusEndpoint() {
+        ResponseEntity<String> responseEntity = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).getForEntity("http://localhost:{port}/actuator/prometheus", String.class, port);
+
+        assertThat(responseEntity.getStatusCode().value()).isEqualTo(200);
+        assertThat(responseEntity.getBody()).contains("users_lookup_seconds_bucket").contains("password_hashing_duration_seconds_bucket");
+    }
+}
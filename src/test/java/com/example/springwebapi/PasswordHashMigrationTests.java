@@ -0,0 +1,268 @@
+package com.example.springwebapi;
+
+import com.example.springwebapi.repositories.UserEntityCache;
+import com.example.springwebapi.repositories.UserJdbcRepository;
+import com.example.springwebapi.security.BCryptCalibration;
+import com.example.springwebapi.security.BoundedPasswordEncoder;
+import com.example.springwebapi.security.MigratingAuthenticationProvider;
+import com.example.springwebapi.security.PasswordHashMigration;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class PasswordHashMigrationTests {
+    private static final String ADMIN_USERNAME = "admin";
+    private static final String ADMIN_PASSWORD = "password";
+    private static final String TEST_USERNAME = "migration_test";
+    private static final String TEST_PASSWORD = "password";
+    private static final String SATURATING_PASSWORD = "saturating";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserJdbcRepository userJdbcRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserEntityCache userEntityCache;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @AfterEach
+    void tearDown() {
+        restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).delete("http://localhost:{port}/user/{username}", port, TEST_USERNAME);
+    }
+
+    @Test
+    void login_MigratesWeakerHash() throws InterruptedException {
+        // Install test user with a low-cost bcrypt hash
+        userJdbcRepository.create(User.builder().username(TEST_USERNAME).password("{bcrypt}" + new BCryptPasswordEncoder(4).encode(TEST_PASSWORD)).roles("USER").build());
+        double migrated = migrations();
+
+        // Log in twice with the test user, waiting for the background re-hash in between
+        String weak = storedPassword();
+        int first = restTemplate.withBasicAuth(TEST_USERNAME, TEST_PASSWORD).getForEntity("http://localhost:{port}/user/{username}", String.class, port, TEST_USERNAME).getStatusCode().value();
+        String rehashed = awaitStoredPasswordChange(weak);
+        int second = restTemplate.withBasicAuth(TEST_USERNAME, TEST_PASSWORD).getForEntity("http://localhost:{port}/user/{username}", String.class, port, TEST_USERNAME).getStatusCode().value();
+
+        // Verify the hash was migrated once to the configured cost
+        assertThat(first).isEqualTo(200);
+        assertThat(second).isEqualTo(200);
+        assertThat(rehashed).startsWith("{bcrypt}$2a$10$");
+        assertThat(storedPassword()).isEqualTo(rehashed);
+        assertThat(migrations()).isEqualTo(migrated + 1);
+    }
+
+    @Test
+    void login_MigratesLegacyAlgorithm() throws InterruptedException {
+        // Install test user with a plain-text password
+        userJdbcRepository.create(User.builder().username(TEST_USERNAME).password("{noop}" + TEST_PASSWORD).roles("USER").build());
+
+        // Log in with the test user
+        int status = restTemplate.withBasicAuth(TEST_USERNAME, TEST_PASSWORD).getForEntity("http://localhost:{port}/user/{username}", String.class, port, TEST_USERNAME).getStatusCode().value();
+
+        // Verify the password is now stored with the target algorithm
+        assertThat(status).isEqualTo(200);
+        assertThat(awaitStoredPasswordChange("{noop}" + TEST_PASSWORD)).startsWith("{bcrypt}$2a$10$");
+    }
+
+    @Test
+    void login_SkipsMigrationWhenHashingIsSaturated() throws Exception {
+        // Install test user with a low-cost bcrypt hash
+        String weak = "{bcrypt}" + new BCryptPasswordEncoder(4).encode(TEST_PASSWORD);
+        userJdbcRepository.create(User.builder().username(TEST_USERNAME).password(weak).roles("USER").build());
+
+        // One hashing thread and one queue slot, both taken right after the credentials were verified
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CountDownLatch release = new CountDownLatch(1);
+        BoundedPasswordEncoder[] encoder = new BoundedPasswordEncoder[1];
+        PasswordEncoder bcrypt = PasswordEncoderFactories.createDelegatingPasswordEncoder();
+        encoder[0] = new BoundedPasswordEncoder(new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                if (SATURATING_PASSWORD.contentEquals(rawPassword)) {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return bcrypt.encode(rawPassword);
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return bcrypt.matches(rawPassword, encodedPassword);
+            }
+
+            @Override
+            public boolean upgradeEncoding(String encodedPassword) {
+                encoder[0].encodeAsync(SATURATING_PASSWORD);
+                awaitRunning(registry);
+                encoder[0].encodeAsync(SATURATING_PASSWORD);
+                awaitGauge(registry, "executor.queued", 1);
+                return true;
+            }
+        }, 1, 1, registry);
+        TaskExecutor callerRuns = Runnable::run;
+        PasswordHashMigration passwordHashMigration = new PasswordHashMigration(userJdbcRepository, userEntityCache, encoder[0], callerRuns, 1000, registry);
+        MigratingAuthenticationProvider authenticationProvider = new MigratingAuthenticationProvider(userDetailsService, encoder[0], passwordHashMigration);
+        try {
+            // Log in with the test user
+            Authentication authentication = authenticationProvider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated(TEST_USERNAME, TEST_PASSWORD));
+
+            // Verify the login succeeded and the re-hash was skipped without taking a queue slot
+            assertThat(authentication.isAuthenticated()).isTrue();
+            assertThat(registry.get("password.hashing.migrations").tag("outcome", "skipped").counter().count()).isEqualTo(1);
+            assertThat(registry.get("password.hashing.rejected").counter().count()).isZero();
+            assertThat(storedPassword()).isEqualTo(weak);
+        } finally {
+            release.countDown();
+            encoder[0].close();
+        }
+    }
+
+    @Test
+    void migrate_RehashesConcurrentLoginsOnce() throws Exception {
+        // Install test user with a low-cost bcrypt hash
+        String weak = "{bcrypt}" + new BCryptPasswordEncoder(4).encode(TEST_PASSWORD);
+        userJdbcRepository.create(User.builder().username(TEST_USERNAME).password(weak).roles("USER").build());
+
+        // Two hashing threads, with the first re-hash held until both logins have asked for one
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger encodes = new AtomicInteger();
+        PasswordEncoder bcrypt = PasswordEncoderFactories.createDelegatingPasswordEncoder();
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                encodes.incrementAndGet();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return bcrypt.encode(rawPassword);
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return bcrypt.matches(rawPassword, encodedPassword);
+            }
+        }, 2, 1, registry);
+        PasswordHashMigration passwordHashMigration = new PasswordHashMigration(userJdbcRepository, userEntityCache, encoder, Runnable::run, 1000, registry);
+        try {
+            // Migrate the same user twice while the first re-hash is running
+            UserDetails user = userDetailsService.loadUserByUsername(TEST_USERNAME);
+            passwordHashMigration.migrate(user, TEST_PASSWORD);
+            passwordHashMigration.migrate(user, TEST_PASSWORD);
+            release.countDown();
+
+            // Verify a single re-hash was stored and nothing was skipped
+            for (int i = 0; i < 500 && registry.get("password.hashing.migrations").tag("outcome", "migrated").counter().count() < 1; i++) {
+                Thread.sleep(10);
+            }
+            assertThat(registry.get("password.hashing.migrations").tag("outcome", "migrated").counter().count()).isEqualTo(1);
+            assertThat(storedPassword()).isNotEqualTo(weak).startsWith("{bcrypt}");
+            assertThat(encodes.get()).isEqualTo(1);
+            assertThat(registry.get("password.hashing.migrations").tag("outcome", "skipped").counter().count()).isZero();
+        } finally {
+            release.countDown();
+            encoder.close();
+        }
+    }
+
+    @Test
+    void calibration_ReportsWithoutChangingConfiguredStrength() {
+        // Calibrate against a budget no hash can meet
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new BCryptCalibration(12, Duration.ofNanos(1), 10, Runnable::run, registry).calibrate();
+
+        // Verify only the recommendation is reported
+        assertThat(registry.get("password.hashing.bcrypt.strength.recommended").gauge().value()).isEqualTo(10);
+        assertThat(passwordEncoder.upgradeEncoding("{bcrypt}" + new BCryptPasswordEncoder(10).encode(TEST_PASSWORD))).isFalse();
+    }
+
+    @Test
+    void calibration_RespectsBudgetAndFloor() {
+        // Calibrate against budgets no hash can meet
+        int unconstrained = BCryptCalibration.strength(Duration.ofNanos(1), 4);
+        int floored = BCryptCalibration.strength(Duration.ofNanos(1), 10);
+
+        // Verify the minimum and the configured floor win
+        assertThat(unconstrained).isEqualTo(4);
+        assertThat(floored).isEqualTo(10);
+    }
+
+    private String awaitStoredPasswordChange(String original) throws InterruptedException {
+        for (int i = 0; i < 500 && storedPassword().equals(original); i++) {
+            Thread.sleep(10);
+        }
+        return storedPassword();
+    }
+
+    // The worker may still count as active for the verified password, so also wait for the queue to drain
+    private static void awaitRunning(MeterRegistry registry) {
+        for (int i = 0; i < 500 && (executorGauge(registry, "executor.queued") > 0 || executorGauge(registry, "executor.active") < 1); i++) {
+            LockSupport.parkNanos(10_000_000);
+        }
+        assertThat(executorGauge(registry, "executor.queued")).isZero();
+        assertThat(executorGauge(registry, "executor.active")).isEqualTo(1);
+    }
+
+    private static double executorGauge(MeterRegistry registry, String name) {
+        return registry.get(name).tag("name", "password.hashing").gauge().value();
+    }
+
+    private static void awaitGauge(MeterRegistry registry, String name, double value) {
+        for (int i = 0; i < 500 && executorGauge(registry, name) < value; i++) {
+            LockSupport.parkNanos(10_000_000);
+        }
+        assertThat(executorGauge(registry, name)).isEqualTo(value);
+    }
+
+    private String storedPassword() {
+        return new JdbcTemplate(dataSource).queryForObject("select password from users where username = ?", String.class, TEST_USERNAME);
+    }
+
+    private double migrations() {
+        return meterRegistry.get("password.hashing.migrations").tag("outcome", "migrated").counter().count();
+    }
+}
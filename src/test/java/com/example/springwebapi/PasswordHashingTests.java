@@ -0,0 +1,13 @@
+package com.example.springwebapi;
+
+import com.example.springwebapi.security.BoundedPasswordEncoder;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PasswordHashingTests extends AbstractPasswordHashingTests {
+    @Test
+    void passwordEncoder_ExpectingBoundedPasswordEncoder() {
+        assertThat(passwordEncoder).isInstanceOf(BoundedPasswordEncoder.class);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.springwebapi;
+
+import com.example.springwebapi.dtos.PersonIngestResultDTO;
+import com.example.springwebapi.entities.Person;
+import com.example.springwebapi.repositories.PersonRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class PersonIngestControllerTests {
+    private static final String ADMIN_USERNAME = "admin";
+    private static final String ADMIN_PASSWORD = "password";
+    private static final String TEST_PREFIX = "ingest_test_";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @AfterEach
+    void tearDown() {
+        personRepository.deleteAll(StreamSupport.stream(personRepository.findAll().spliterator(), false).filter(person -> person.getUsername() != null && person.getUsername().startsWith(TEST_PREFIX)).toList());
+    }
+
+    @Test
+    void ingestJson() {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < 120; i++) {
+            body.append(i == 0 ? "" : ",").append("{\"username\":\"").append(TEST_PREFIX).append(i).append("\",\"firstName\":\"First\",\"lastName\":\"Last\"}");
+        }
+        body.append("]");
+
+        PersonIngestResultDTO result = post(body.toString(), MediaType.APPLICATION_JSON).getBody();
+
+        assertThat(result).isNotNull();
+        assertThat(result.created).isEqualTo(120);
+        Person person = personRepository.findByUsername(TEST_PREFIX + 119);
+        assertThat(person.getFirstName()).isEqualTo("First");
+        assertThat(person.getLastName()).isEqualTo("Last");
+    }
+
+    @Test
+    void ingestJson_ExpectingStatusCode400WithCommittedCount() {
+        // Two full chunks of 1000 persons followed by a malformed row
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < 2000; i++) {
+            body.append(i == 0 ? "" : ",").append("{\"username\":\"").append(TEST_PREFIX).append(i).append("\"}");
+        }
+        body.append(",{\"username\":}]");
+
+        ResponseEntity<PersonIngestResultDTO> responseEntity = post(body.toString(), MediaType.APPLICATION_JSON);
+
+        // Verify the error reports the persons committed before it
+        assertThat(responseEntity.getStatusCode().value()).isEqualTo(400);
+        assertThat(responseEntity.getBody().created).isEqualTo(2000);
+        assertThat(responseEntity.getBody().error).isEqualTo("Persons could not be parsed at row 2001");
+        assertThat(personRepository.findByUsername(TEST_PREFIX + 1999)).isNotNull();
+    }
+
+    @Test
+    void ingestCsv() {
+        String body = "username,firstName,lastName\n" + TEST_PREFIX + "csv,\"Smith, Jr\",\"O\"\"Brien\"\n";
+
+        PersonIngestResultDTO result = post(body, MediaType.valueOf("text/csv")).getBody();
+
+        assertThat(result).isNotNull();
+        assertThat(result.created).isEqualTo(1);
+        Person person = personRepository.findByUsername(TEST_PREFIX + "csv");
+        assertThat(person.getFirstName()).isEqualTo("Smith, Jr");
+        assertThat(person.getLastName()).isEqualTo("O\"Brien");
+    }
+
+    @Test
+    void ingestCsv_ExpectingStatusCode400ForMalformedRow() {
+        ResponseEntity<PersonIngestResultDTO> responseEntity = post("only-one-column\n", MediaType.valueOf("text/csv"));
+
+        assertThat(responseEntity.getStatusCode().value()).isEqualTo(400);
+        assertThat(responseEntity.getBody().created).isZero();
+        assertThat(responseEntity.getBody().error).isEqualTo("Expected username,firstName,lastName at row 1");
+    }
+
+    private ResponseEntity<PersonIngestResultDTO> post(String body, MediaType contentType) {
+        return restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).postForEntity("http://localhost:{port}/persons/bulk", new HttpEntity<>(body, headers(contentType)), PersonIngestResultDTO.class, port);
+    }
+
+    private static HttpHeaders headers(MediaType contentType) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(contentType);
+        return headers;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.springwebapi;
+
+import com.example.springwebapi.entities.Person;
+import com.example.springwebapi.repositories.PersonRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class PersonRepositoryTests {
+    private static final String ADMIN_USERNAME = "admin";
+    private static final String ADMIN_PASSWORD = "password";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    private Person person;
+
+    @BeforeEach
+    void setUp() {
+        person = new Person();
+        person.setFirstName("etag_test");
+        person = personRepository.save(person);
+    }
+
+    @AfterEach
+    void tearDown() {
+        personRepository.deleteById(person.getId());
+    }
+
+    @Test
+    void getPerson_ExpectingStatusCode304ForMatchingETag() {
+        // Get person by id and repeat with the returned ETag
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaTypes.HAL_JSON));
+        ResponseEntity<String> responseEntity = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).exchange("http://localhost:{port}/persons/{id}", HttpMethod.GET, new HttpEntity<>(headers), String.class, port, person.getId());
+        String eTag = responseEntity.getHeaders().getETag();
+        headers.setIfNoneMatch(eTag);
+        ResponseEntity<String> notModified = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).exchange("http://localhost:{port}/persons/{id}", HttpMethod.GET, new HttpEntity<>(headers), String.class, port, person.getId());
+
+        // Verify response
+        assertThat(responseEntity.getStatusCode().value()).isEqualTo(200);
+        assertThat(eTag).isEqualTo("\"0\"");
+        assertThat(notModified.getStatusCode().value()).isEqualTo(304);
+        assertThat(notModified.getBody()).isNull();
+    }
+
+    @Test
+    void patchPerson_ExpectingStatusCode412ForStaleIfMatch() {
+        // Patch person with the current ETag, then again with the same, now stale, ETag
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setIfMatch("\"0\"");
+        ResponseEntity<String> patched = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).exchange("http://localhost:{port}/persons/{id}", HttpMethod.PATCH, new HttpEntity<>("{\"lastName\":\"etag_test\"}", headers), String.class, port, person.getId());
+        ResponseEntity<String> stale = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).exchange("http://localhost:{port}/persons/{id}", HttpMethod.PATCH, new HttpEntity<>("{\"lastName\":\"etag_test_stale\"}", headers), String.class, port, person.getId());
+
+        // Verify response and that the stale patch was not applied
+        assertThat(patched.getStatusCode().is2xxSuccessful()).isTrue();
+        assertThat(patched.getHeaders().getETag()).isEqualTo("\"1\"");
+        assertThat(stale.getStatusCode().value()).isEqualTo(412);
+        assertThat(personRepository.findById(person.getId()).orElseThrow().getLastName()).isEqualTo("etag_test");
+    }
+}
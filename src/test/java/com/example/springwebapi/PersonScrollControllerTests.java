@@ -0,0 +1,109 @@
+package com.example.springwebapi;
+
+import com.example.springwebapi.entities.Person;
+import com.example.springwebapi.repositories.PersonRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class PersonScrollControllerTests {
+    private static final String ADMIN_USERNAME = "admin";
+    private static final String ADMIN_PASSWORD = "password";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    private final List<Person> persons = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 3; i++) {
+            Person person = new Person();
+            person.setUsername("scroll_test_" + i);
+            persons.add(personRepository.save(person));
+        }
+        for (int i = 0; i < 2; i++) {
+            Person person = new Person();
+            person.setFirstName("scroll_test_null_" + i);
+            persons.add(personRepository.save(person));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        personRepository.deleteAll(persons);
+        persons.clear();
+    }
+
+    @Test
+    void scrollPersons() {
+        // Walk all pages by following next links
+        List<String> usernames = new ArrayList<>();
+        String url = "http://localhost:" + port + "/persons/scroll?sort=username&size=1";
+        while (url != null) {
+            ResponseEntity<JsonNode> responseEntity = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).getForEntity(url, JsonNode.class);
+            assertThat(responseEntity.getStatusCode().value()).isEqualTo(200);
+            JsonNode body = responseEntity.getBody();
+            assertThat(body).isNotNull();
+            body.path("_embedded").path("persons").forEach(person -> usernames.add(person.path("username").asText()));
+            url = body.path("_links").path("next").path("href").asText(null);
+        }
+
+        // Verify every test person was returned once, in order
+        assertThat(usernames.stream().filter(username -> username.startsWith("scroll_test_")).toList()).containsExactly("scroll_test_0", "scroll_test_1", "scroll_test_2");
+    }
+
+    @Test
+    void scrollPersons_ExpectingPersonsWithoutUsernameLast() {
+        // Walk all pages by username, including persons without a username
+        List<String> firstNames = new ArrayList<>();
+        List<String> usernames = new ArrayList<>();
+        String url = "http://localhost:" + port + "/persons/scroll?sort=username&size=1";
+        while (url != null) {
+            ResponseEntity<JsonNode> responseEntity = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).getForEntity(url, JsonNode.class);
+            assertThat(responseEntity.getStatusCode().value()).isEqualTo(200);
+            JsonNode body = responseEntity.getBody();
+            body.path("_embedded").path("persons").forEach(person -> {
+                usernames.add(person.path("username").asText(null));
+                firstNames.add(person.path("firstName").asText(null));
+            });
+            url = body.path("_links").path("next").path("href").asText(null);
+        }
+
+        // Verify cursors past a null username are accepted and every person is returned once
+        assertThat(firstNames.stream().filter(firstName -> firstName != null && firstName.startsWith("scroll_test_null_")).toList()).containsExactly("scroll_test_null_0", "scroll_test_null_1");
+        assertThat(usernames.indexOf(null)).isGreaterThan(usernames.indexOf("scroll_test_2"));
+        assertThat(usernames.subList(usernames.indexOf(null), usernames.size())).containsOnlyNulls();
+    }
+
+    @Test
+    void scrollPersons_ExpectingStatusCode400ForUnsupportedSort() {
+        ResponseEntity<String> responseEntity = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).getForEntity("http://localhost:{port}/persons/scroll?sort={sort}", String.class, port, "firstName");
+        assertThat(responseEntity.getStatusCode().value()).isEqualTo(400);
+        assertThat(responseEntity.getBody()).isEqualTo("Sort property firstName is not supported");
+    }
+
+    @Test
+    void scrollPersons_ExpectingStatusCode400ForInvalidCursor() {
+        ResponseEntity<String> responseEntity = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).getForEntity("http://localhost:{port}/persons/scroll?after={after}", String.class, port, "not-a-cursor");
+        assertThat(responseEntity.getStatusCode().value()).isEqualTo(400);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.springwebapi;
+
+import com.example.springwebapi.dtos.PersonSearchResultDTO;
+import com.example.springwebapi.entities.Person;
+import com.example.springwebapi.repositories.PersonRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Arrays;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class PersonSearchControllerTests {
+    private static final String ADMIN_USERNAME = "admin";
+    private static final String ADMIN_PASSWORD = "password";
+    private static final String TEST_PREFIX = "search_test_";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @AfterEach
+    void tearDown() {
+        personRepository.deleteAll(StreamSupport.stream(personRepository.findAll().spliterator(), false).filter(person -> person.getUsername() != null && person.getUsername().startsWith(TEST_PREFIX)).toList());
+    }
+
+    @Test
+    void searchPersons() {
+        // Install test persons
+        for (int i = 0; i < 5; i++) {
+            personRepository.save(person(TEST_PREFIX + i, "Searchable" + i, "Person"));
+        }
+
+        // Search by username and first name prefix
+        PersonSearchResultDTO[] byUsername = search(TEST_PREFIX.toUpperCase(), 3).getBody();
+        PersonSearchResultDTO[] byFirstName = search("searchable4", 10).getBody();
+
+        // Verify matches
+        assertThat(byUsername).hasSize(3);
+        assertThat(Arrays.stream(byUsername).map(result -> result.username)).allMatch(username -> username.startsWith(TEST_PREFIX));
+        assertThat(byFirstName).hasSize(1);
+        assertThat(byFirstName[0].username).isEqualTo(TEST_PREFIX + 4);
+    }
+
+    @Test
+    void searchPersons_ReflectsUpdatesAndDeletes() {
+        // Install, rename and remove test persons
+        Person person = personRepository.save(person(TEST_PREFIX + "renamed", "Before", "Rename"));
+        person.setFirstName("Afterwards");
+        personRepository.save(person);
+        Person removed = personRepository.save(person(TEST_PREFIX + "removed", "Removable", "Person"));
+        personRepository.delete(removed);
+
+        // Verify the index follows committed changes
+        assertThat(search("afterwards", 10).getBody()).extracting(result -> result.username).containsExactly(TEST_PREFIX + "renamed");
+        assertThat(search("before", 10).getBody()).extracting(result -> result.username).doesNotContain(TEST_PREFIX + "renamed");
+        assertThat(search("removable", 10).getBody()).isEmpty();
+    }
+
+    private ResponseEntity<PersonSearchResultDTO[]> search(String prefix, int limit) {
+        return restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).getForEntity("http://localhost:{port}/persons/search?prefix={prefix}&limit={limit}", PersonSearchResultDTO[].class, port, prefix, limit);
+    }
+
+    private static Person person(String username, String firstName, String lastName) {
+        Person person = new Person();
+        person.setUsername(username);
+        person.setFirstName(firstName);
+        person.setLastName(lastName);
+        return person;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.springwebapi;
+
+import com.example.springwebapi.search.PersonSearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PersonSearchIndexTests {
+    @Test
+    void load_ExpectingDeleteDuringLoadNotResurrected() {
+        PersonSearchIndex index = new PersonSearchIndex(1024 * 1024, new SimpleMeterRegistry());
+
+        // A person is deleted after the loader's SELECT started but before the loader reached its row
+        index.beginLoad();
+        index.putIfAbsent(1, "first", "First", "Person");
+        index.remove(2);
+        index.putIfAbsent(2, "second", "Second", "Person");
+        index.markReady();
+
+        // Verify the deleted person stays deleted
+        assertThat(index.isUsable()).isTrue();
+        assertThat(index.search("first", 10)).hasSize(1);
+        assertThat(index.search("second", 10)).isEmpty();
+    }
+
+    @Test
+    void load_ExpectingUpdateDuringLoadKept() {
+        PersonSearchIndex index = new PersonSearchIndex(1024 * 1024, new SimpleMeterRegistry());
+
+        // A person is renamed after the loader's SELECT started
+        index.beginLoad();
+        index.put(1, "renamed", "After", "Person");
+        index.putIfAbsent(1, "renamed", "Before", "Person");
+        index.markReady();
+
+        // Verify the committed update wins over the stale row
+        assertThat(index.search("after", 10)).hasSize(1);
+        assertThat(index.search("before", 10)).isEmpty();
+    }
+
+    @Test
+    void put_ExpectingUsableAgainOnceBackWithinBudget() {
+        PersonSearchIndex index = new PersonSearchIndex(700, new SimpleMeterRegistry());
+
+        // Exceed the memory budget with the third person
+        index.beginLoad();
+        index.putIfAbsent(1, "first", "First", "Person");
+        index.putIfAbsent(2, "second", "Second", "Person");
+        index.putIfAbsent(3, "third", "Third", "Person");
+        index.markReady();
+        assertThat(index.isUsable()).isFalse();
+
+        // Deleting an indexed person frees room, but the dropped person is still missing
+        index.remove(1);
+        assertThat(index.isUsable()).isFalse();
+
+        // The dropped person is indexed again on its next update
+        index.put(3, "third", "Third", "Person");
+        assertThat(index.isUsable()).isTrue();
+        assertThat(index.search("third", 10)).hasSize(1);
+    }
+
+    @Test
+    void remove_ExpectingUsableAgainOnceDroppedPersonIsDeleted() {
+        PersonSearchIndex index = new PersonSearchIndex(700, new SimpleMeterRegistry());
+
+        // Exceed the memory budget with the third person
+        index.beginLoad();
+        index.putIfAbsent(1, "first", "First", "Person");
+        index.putIfAbsent(2, "second", "Second", "Person");
+        index.putIfAbsent(3, "third", "Third", "Person");
+        index.markReady();
+        assertThat(index.isUsable()).isFalse();
+
+        // Deleting the dropped person makes the index complete again
+        index.remove(3);
+        assertThat(index.isUsable()).isTrue();
+    }
+}
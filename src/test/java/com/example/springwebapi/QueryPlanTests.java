@@ -0,0 +1,53 @@
+package com.example.springwebapi;
+
+import com.example.springwebapi.repositories.UserProfileJdbcRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class QueryPlanTests {
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource dataSource;
+
+    @Test
+    void findUserByUsername_UsesPrimaryKey() {
+        assertThat(plan("select username, password, enabled from users where username = 'admin'")).contains("PRIMARY_KEY").doesNotContain("tableScan");
+    }
+
+    @Test
+    void findAuthoritiesByUsername_UsesIndex() {
+        assertThat(plan("select username, authority from authorities where username = 'admin'")).contains("IX_AUTH_USERNAME").doesNotContain("tableScan");
+    }
+
+    @Test
+    void findPersonByUsername_UsesIndex() {
+        assertThat(plan("select id, username, first_name, last_name, version from person where username = 'admin'")).contains("IX_PERSON_USERNAME").doesNotContain("tableScan");
+    }
+
+    @Test
+    void findProfiles_UsesIndexes() {
+        String plan = String.join("\n", new NamedParameterJdbcTemplate(dataSource).queryForList("explain " + UserProfileJdbcRepository.SELECT_PROFILES_SQL, Map.of("usernames", List.of("admin", "user")), String.class));
+        assertThat(plan).contains("PRIMARY_KEY").doesNotContain("tableScan");
+    }
+
+    @Test
+    void findAuditEventsByActorAndTarget_UsesIndexes() {
+        assertThat(plan("select id from audit_event where actor = 'admin'")).contains("IX_AUDIT_EVENT_ACTOR").doesNotContain("tableScan");
+        assertThat(plan("select id from audit_event where target = 'admin'")).contains("IX_AUDIT_EVENT_TARGET").doesNotContain("tableScan");
+    }
+
+    private String plan(String sql) {
+        return String.join("\n", new JdbcTemplate(dataSource).queryForList("explain " + sql, String.class));
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.springwebapi;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SchemaMigrationTests {
+    @Test
+    void migrate_ExpectingDdlAutoUpdateDatabaseReconciled() {
+        // A database as ddl-auto=update built it before migrations, with an authority table and no version columns
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:schema-migration-test;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table users (username varchar(255) not null, enabled boolean not null, password varchar(255), primary key (username))");
+        jdbcTemplate.execute("create table authority (authority varchar(255) not null, primary key (authority))");
+        jdbcTemplate.execute("create table authorities (username varchar(255) not null, authority varchar(255) not null)");
+        jdbcTemplate.execute("alter table authorities add constraint UK6n5fbyoq8u5ci5ov5f0jhhp1o unique (authority)");
+        jdbcTemplate.execute("alter table authorities add constraint FKl0ivnfvdg3xw6wduqbmumcfj6 foreign key (authority) references authority");
+        jdbcTemplate.execute("alter table authorities add constraint FKhjuy9y4fd8v5m3klig05ktofg foreign key (username) references users");
+        jdbcTemplate.execute("create sequence person_seq start with 1 increment by 50");
+        jdbcTemplate.execute("create table person (id bigint not null, first_name varchar(255), last_name varchar(255), username varchar(255), primary key (id))");
+        jdbcTemplate.update("insert into users (username, enabled, password) values ('admin', true, '{noop}password')");
+        jdbcTemplate.update("insert into authority (authority) values ('ROLE_ADMIN')");
+        jdbcTemplate.update("insert into authorities (username, authority) values ('admin', 'ROLE_ADMIN')");
+        jdbcTemplate.update("insert into person (id, username) values (1, 'admin')");
+
+        // Baseline and migrate the way the application does
+        Flyway.configure().dataSource(dataSource).baselineOnMigrate(true).baselineVersion("0").load().migrate();
+
+        // Verify authority is now a view and authorities can be shared by users
+        jdbcTemplate.update("insert into users (username, enabled, password) values ('user', true, '{noop}password')");
+        jdbcTemplate.update("insert into authorities (username, authority) values ('user', 'ROLE_ADMIN')");
+        jdbcTemplate.update("insert into authorities (username, authority) values ('user', 'ROLE_USER')");
+        assertThat(jdbcTemplate.queryForList("select authority from authority order by authority", String.class)).containsExactly("ROLE_ADMIN", "ROLE_USER");
+        assertThat(jdbcTemplate.queryForObject("select table_type from information_schema.tables where table_name = 'AUTHORITY'", String.class)).isEqualTo("VIEW");
+
+        // Verify the version columns were added to existing rows and are required
+        assertThat(jdbcTemplate.queryForObject("select version from users where username = 'admin'", Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("select version from person where id = 1", Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("select is_nullable from information_schema.columns where table_name = 'USERS' and column_name = 'VERSION'", String.class)).isEqualTo("NO");
+        assertThat(jdbcTemplate.queryForObject("select is_nullable from information_schema.columns where table_name = 'PERSON' and column_name = 'VERSION'", String.class)).isEqualTo("NO");
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.springwebapi;
+
+import com.example.springwebapi.dtos.TokenDTO;
+import com.example.springwebapi.dtos.UserDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class TokenControllerTests {
+    private static final String ADMIN_USERNAME = "admin";
+    private static final String ADMIN_PASSWORD = "password";
+    private static final String TEST_USERNAME = "token_test";
+    private static final String TEST_PASSWORD = "password";
+    private static final String[] USER_ROLES = new String[]{"USER"};
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void createToken() {
+        // Exchange credentials for a token
+        TokenDTO tokenDTO = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).postForObject("http://localhost:{port}/token", null, TokenDTO.class, port);
+        assertThat(tokenDTO.accessToken).isNotBlank();
+        assertThat(tokenDTO.tokenType).isEqualTo("Bearer");
+        assertThat(tokenDTO.expiresIn).isPositive();
+
+        // Use token instead of credentials
+        ResponseEntity<UserDTO> responseEntity = restTemplate.exchange("http://localhost:{port}/user/{username}", HttpMethod.GET, new HttpEntity<>(bearer(tokenDTO.accessToken)), UserDTO.class, port, ADMIN_USERNAME);
+        assertThat(responseEntity.getStatusCode().value()).isEqualTo(200);
+    }
+
+    @Test
+    void useToken_ExpectingStatusCode401ForTamperedToken() {
+        TokenDTO tokenDTO = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).postForObject("http://localhost:{port}/token", null, TokenDTO.class, port);
+
+        ResponseEntity<String> responseEntity = restTemplate.exchange("http://localhost:{port}/user/{username}", HttpMethod.GET, new HttpEntity<>(bearer(tokenDTO.accessToken + "x")), String.class, port, ADMIN_USERNAME);
+        assertThat(responseEntity.getStatusCode().value()).isEqualTo(401);
+    }
+
+    @Test
+    void useToken_ExpectingStatusCode401AfterUserDeleted() {
+        // Install test user and issue a token for it
+        UserDTO userDTO = new UserDTO(TEST_USERNAME, TEST_PASSWORD, true, USER_ROLES);
+        restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).postForObject("http://localhost:{port}/user", userDTO, UserDTO.class, port);
+        TokenDTO tokenDTO = restTemplate.withBasicAuth(TEST_USERNAME, TEST_PASSWORD).postForObject("http://localhost:{port}/token", null, TokenDTO.class, port);
+
+        // Delete test user
+        restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).delete("http://localhost:{port}/user/{username}", port, TEST_USERNAME);
+
+        // Verify token is revoked
+        ResponseEntity<String> responseEntity = restTemplate.exchange("http://localhost:{port}/user/{username}", HttpMethod.GET, new HttpEntity<>(bearer(tokenDTO.accessToken)), String.class, port, ADMIN_USERNAME);
+        assertThat(responseEntity.getStatusCode().value()).isEqualTo(401);
+    }
+
+    @Test
+    void createToken_ExpectingStatusCode403ForTokenAuthentication() {
+        TokenDTO tokenDTO = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).postForObject("http://localhost:{port}/token", null, TokenDTO.class, port);
+
+        // Try to exchange the token for a new token
+        ResponseEntity<String> responseEntity = restTemplate.exchange("http://localhost:{port}/token", HttpMethod.POST, new HttpEntity<>(bearer(tokenDTO.accessToken)), String.class, port);
+        assertThat(responseEntity.getStatusCode().value()).isEqualTo(403);
+    }
+
+    private static HttpHeaders bearer(String token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        return headers;
+    }
+}
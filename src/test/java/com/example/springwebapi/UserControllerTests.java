@@ -1,7 +1,9 @@
 package com.example.springwebapi;
 
 import com.example.springwebapi.controllers.UserController;
+import com.example.springwebapi.dtos.UserBatchResultDTO;
 import com.example.springwebapi.dtos.UserDTO;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,8 +12,14 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -36,6 +44,12 @@ class UserControllerTests {
     @Autowired
     private TestRestTemplate restTemplate;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DataSource dataSource;
+
     @BeforeEach
     void setUp() {
         try {
@@ -225,6 +239,177 @@ class UserControllerTests {
         restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).delete("http://localhost:{port}/user/{username}", port, TEST_USERNAME);
     }
 
+    @Test
+    void getUser_ExpectingStatusCode304ForMatchingETag() {
+        // Install test user
+        UserDTO userDTO = new UserDTO(TEST_USERNAME, TEST_PASSWORD, true, USER_ROLES);
+        restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).postForObject("http://localhost:{port}/user", userDTO, UserDTO.class, port);
+
+        // Get user by username and repeat with the returned ETag
+        ResponseEntity<UserDTO> responseEntity = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).getForEntity("http://localhost:{port}/user/{username}", UserDTO.class, port, TEST_USERNAME);
+        String eTag = responseEntity.getHeaders().getETag();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(eTag);
+        ResponseEntity<String> notModified = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).exchange("http://localhost:{port}/user/{username}", HttpMethod.GET, new HttpEntity<>(headers), String.class, port, TEST_USERNAME);
+
+        // Verify response
+        assertThat(eTag).matches("\"\\d+\\.0\"");
+        assertThat(notModified.getStatusCode().value()).isEqualTo(304);
+        assertThat(notModified.getBody()).isNull();
+
+        // Delete test user
+        restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).delete("http://localhost:{port}/user/{username}", port, TEST_USERNAME);
+    }
+
+    @Test
+    void updateUser_ExpectingStatusCode412ForStaleIfMatch() {
+        // Install test user
+        UserDTO userDTO = new UserDTO(TEST_USERNAME, TEST_PASSWORD, true, USER_ROLES);
+        restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).postForObject("http://localhost:{port}/user", userDTO, UserDTO.class, port);
+
+        // Update user with the current ETag, then again with the same, now stale, ETag
+        String eTag = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).getForEntity("http://localhost:{port}/user/{username}", UserDTO.class, port, TEST_USERNAME).getHeaders().getETag();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfMatch(eTag);
+        ResponseEntity<UserDTO> updated = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).exchange("http://localhost:{port}/user/{username}", HttpMethod.PUT, new HttpEntity<>(userDTO, headers), UserDTO.class, port, TEST_USERNAME);
+        ResponseEntity<String> stale = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).exchange("http://localhost:{port}/user/{username}", HttpMethod.PUT, new HttpEntity<>(userDTO, headers), String.class, port, TEST_USERNAME);
+
+        // Verify response
+        assertThat(updated.getStatusCode().value()).isEqualTo(200);
+        assertThat(updated.getHeaders().getETag()).isEqualTo(eTag.replace(".0\"", ".1\""));
+        assertThat(stale.getStatusCode().value()).isEqualTo(412);
+
+        // Delete test user
+        restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).delete("http://localhost:{port}/user/{username}", port, TEST_USERNAME);
+    }
+
+    @Test
+    void updateUser_ExpectingAnyListedIfMatchToMatch() {
+        // Install test user
+        UserDTO userDTO = new UserDTO(TEST_USERNAME, TEST_PASSWORD, true, USER_ROLES);
+        restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).postForObject("http://localhost:{port}/user", userDTO, UserDTO.class, port);
+
+        // Update user with a list of ETags that contains the current one
+        String eTag = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).getForEntity("http://localhost:{port}/user/{username}", UserDTO.class, port, TEST_USERNAME).getHeaders().getETag();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfMatch(List.of("\"0.0\"", eTag));
+        ResponseEntity<UserDTO> updated = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).exchange("http://localhost:{port}/user/{username}", HttpMethod.PUT, new HttpEntity<>(userDTO, headers), UserDTO.class, port, TEST_USERNAME);
+
+        // Verify response
+        assertThat(updated.getStatusCode().value()).isEqualTo(200);
+
+        // Delete test user
+        restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).delete("http://localhost:{port}/user/{username}", port, TEST_USERNAME);
+    }
+
+    @Test
+    void updateUser_ExpectingStatusCode412ForIfMatchOfDeletedUser() {
+        // Install test user, then delete and re-create it
+        UserDTO userDTO = new UserDTO(TEST_USERNAME, TEST_PASSWORD, true, USER_ROLES);
+        restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).postForObject("http://localhost:{port}/user", userDTO, UserDTO.class, port);
+        String eTag = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).getForEntity("http://localhost:{port}/user/{username}", UserDTO.class, port, TEST_USERNAME).getHeaders().getETag();
+        restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).delete("http://localhost:{port}/user/{username}", port, TEST_USERNAME);
+        restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).postForObject("http://localhost:{port}/user", userDTO, UserDTO.class, port);
+
+        // Update the new user with the ETag of the deleted one
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfMatch(eTag);
+        ResponseEntity<String> stale = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).exchange("http://localhost:{port}/user/{username}", HttpMethod.PUT, new HttpEntity<>(userDTO, headers), String.class, port, TEST_USERNAME);
+
+        // Verify response
+        assertThat(stale.getStatusCode().value()).isEqualTo(412);
+        assertThat(restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).getForEntity("http://localhost:{port}/user/{username}", UserDTO.class, port, TEST_USERNAME).getHeaders().getETag()).isNotEqualTo(eTag);
+
+        // Delete test user
+        restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).delete("http://localhost:{port}/user/{username}", port, TEST_USERNAME);
+    }
+
+    @Test
+    void updateUser_ExpectingStatusCode404WithoutHashing() {
+        long encoded = meterRegistry.get("password.hashing.duration").tag("operation", "encode").timer().count();
+
+        // Update a user that does not exist
+        UserDTO userDTO = new UserDTO(TEST_USERNAME + "_invalid", TEST_PASSWORD, true, USER_ROLES);
+        ResponseEntity<String> responseEntity = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).exchange("http://localhost:{port}/user/{username}", HttpMethod.PUT, new HttpEntity<>(userDTO), String.class, port, TEST_USERNAME + "_invalid");
+
+        // Verify response and that no password was hashed
+        assertThat(responseEntity.getStatusCode().value()).isEqualTo(404);
+        assertThat(meterRegistry.get("password.hashing.duration").tag("operation", "encode").timer().count()).isEqualTo(encoded);
+    }
+
+    @Test
+    void patchUser() {
+        // Install test user
+        UserDTO userDTO = new UserDTO(TEST_USERNAME, TEST_PASSWORD, true, USER_ROLES);
+        restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).postForObject("http://localhost:{port}/user", userDTO, UserDTO.class, port);
+        ResponseEntity<UserDTO> current = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).getForEntity("http://localhost:{port}/user/{username}", UserDTO.class, port, TEST_USERNAME);
+        String password = storedPassword(TEST_USERNAME);
+
+        // Patch enabled flag and authorities only
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/merge-patch+json"));
+        headers.setIfMatch(current.getHeaders().getETag());
+        ResponseEntity<UserDTO> patched = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).exchange("http://localhost:{port}/user/{username}", HttpMethod.PATCH, new HttpEntity<>("{\"enabled\":false,\"authorities\":[\"ADMIN\"]}", headers), UserDTO.class, port, TEST_USERNAME);
+
+        // Verify response
+        assertThat(patched.getStatusCode().value()).isEqualTo(200);
+        assertThat(patched.getHeaders().getETag()).isEqualTo(current.getHeaders().getETag().replace(".0\"", ".1\""));
+        assertThat(patched.getBody().enabled).isEqualTo(false);
+        assertThat(patched.getBody().authorities).containsExactly("ADMIN");
+
+        // Verify user data and untouched password hash
+        userDTO = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).getForObject("http://localhost:{port}/user/{username}", UserDTO.class, port, TEST_USERNAME);
+        assertThat(userDTO.enabled).isEqualTo(false);
+        assertThat(userDTO.authorities).containsExactly("ADMIN");
+        assertThat(storedPassword(TEST_USERNAME)).isEqualTo(password);
+
+        // Delete test user
+        restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).delete("http://localhost:{port}/user/{username}", port, TEST_USERNAME);
+    }
+
+    @Test
+    void patchUser_ExpectingUnknownFieldException() {
+        // Install test user
+        UserDTO userDTO = new UserDTO(TEST_USERNAME, TEST_PASSWORD, true, USER_ROLES);
+        restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).postForObject("http://localhost:{port}/user", userDTO, UserDTO.class, port);
+
+        // Patch an unknown field
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/merge-patch+json"));
+        ResponseEntity<String> responseEntity = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).exchange("http://localhost:{port}/user/{username}", HttpMethod.PATCH, new HttpEntity<>("{\"email\":\"test@example.com\"}", headers), String.class, port, TEST_USERNAME);
+
+        // Verify response
+        assertThat(responseEntity.getStatusCode().value()).isEqualTo(400);
+        assertThat(responseEntity.getBody()).isEqualTo("Field email cannot be patched");
+
+        // Delete test user
+        restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).delete("http://localhost:{port}/user/{username}", port, TEST_USERNAME);
+    }
+
+    @Test
+    void patchUsers() {
+        // Install test user
+        UserDTO userDTO = new UserDTO(TEST_USERNAME, TEST_PASSWORD, true, USER_ROLES);
+        restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).postForObject("http://localhost:{port}/user", userDTO, UserDTO.class, port);
+
+        // Disable test user and an unknown user in bulk
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/merge-patch+json"));
+        String body = "{\"usernames\":[\"" + TEST_USERNAME + "\",\"" + TEST_USERNAME + "_invalid\"],\"patch\":{\"enabled\":false}}";
+        ResponseEntity<UserBatchResultDTO[]> results = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).exchange("http://localhost:{port}/users", HttpMethod.PATCH, new HttpEntity<>(body, headers), UserBatchResultDTO[].class, port);
+
+        // Verify per-row results
+        assertThat(results.getBody()).hasSize(2);
+        assertThat(results.getBody()[0].status).isEqualTo(UserBatchResultDTO.UPDATED);
+        assertThat(results.getBody()[1].status).isEqualTo(UserBatchResultDTO.NOT_FOUND);
+
+        // Verify user data
+        assertThat(restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).getForObject("http://localhost:{port}/user/{username}", UserDTO.class, port, TEST_USERNAME)).hasFieldOrPropertyWithValue("enabled", false).hasFieldOrPropertyWithValue("authorities", USER_ROLES);
+
+        // Delete test user
+        restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).delete("http://localhost:{port}/user/{username}", port, TEST_USERNAME);
+    }
+
     @Test
     public void deleteUser() {
         // Install test user
@@ -241,4 +426,126 @@ class UserControllerTests {
             assertThat(e.getLocalizedMessage()).isEqualTo("Error while extracting response for type [class com.example.springwebapi.dtos.UserDTO] and content type [application/json]");
         }
     }
+
+    @Test
+    void createUsers() {
+        // Install a batch with a valid user, an invalid user and a duplicate
+        UserDTO[] userDTOs = new UserDTO[]{new UserDTO(TEST_USERNAME, TEST_PASSWORD, true, USER_ROLES), new UserDTO(TEST_USERNAME, null, true, USER_ROLES), new UserDTO(TEST_USERNAME, TEST_PASSWORD, true, USER_ROLES)};
+        UserBatchResultDTO[] results = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).postForObject("http://localhost:{port}/users/batch", userDTOs, UserBatchResultDTO[].class, port);
+
+        // Verify per-row results
+        assertThat(results).hasSize(3);
+        assertThat(results[0].status).isEqualTo(UserBatchResultDTO.CREATED);
+        assertThat(results[1].status).isEqualTo(UserBatchResultDTO.INVALID);
+        assertThat(results[1].message).isEqualTo("Password cannot be empty");
+        assertThat(results[2].status).isEqualTo(UserBatchResultDTO.CONFLICT);
+
+        // Verify user data
+        assertThat(restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).getForObject("http://localhost:{port}/user/{username}", UserDTO.class, port, TEST_USERNAME)).hasFieldOrPropertyWithValue("username", TEST_USERNAME).hasFieldOrPropertyWithValue("enabled", true).hasFieldOrPropertyWithValue("authorities", USER_ROLES);
+
+        // Delete test user
+        restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).delete("http://localhost:{port}/user/{username}", port, TEST_USERNAME);
+    }
+
+    @Test
+    void createUsers_ExpectingPerRowResultsForMalformedElements() {
+        // Install a batch with a valid user, a mistyped user, a non-object element and a truncated element
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        String body = "[{\"username\":\"" + TEST_USERNAME + "\",\"password\":\"" + TEST_PASSWORD + "\",\"enabled\":true,\"authorities\":[\"" + USER_ROLE + "\"]},"
+                + "{\"username\":\"" + TEST_USERNAME + "_typed\",\"password\":\"" + TEST_PASSWORD + "\",\"enabled\":{},\"authorities\":[\"" + USER_ROLE + "\"]},"
+                + "42,"
+                + "{\"username\":";
+        ResponseEntity<UserBatchResultDTO[]> responseEntity = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).postForEntity("http://localhost:{port}/users/batch", new HttpEntity<>(body, headers), UserBatchResultDTO[].class, port);
+
+        // Verify every row is reported
+        assertThat(responseEntity.getStatusCode().value()).isEqualTo(200);
+        UserBatchResultDTO[] results = responseEntity.getBody();
+        assertThat(results).hasSize(4);
+        assertThat(results[0].status).isEqualTo(UserBatchResultDTO.CREATED);
+        assertThat(results[1].username).isEqualTo(TEST_USERNAME + "_typed");
+        assertThat(results[1].status).isEqualTo(UserBatchResultDTO.INVALID);
+        assertThat(results[2].status).isEqualTo(UserBatchResultDTO.INVALID);
+        assertThat(results[2].message).isEqualTo("User must be a JSON object");
+        assertThat(results[3].username).isNull();
+        assertThat(results[3].status).isEqualTo(UserBatchResultDTO.INVALID);
+        assertThat(results[3].message).startsWith("Malformed JSON at line 1");
+
+        // Verify the valid user was created
+        assertThat(restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).getForEntity("http://localhost:{port}/user/{username}", String.class, port, TEST_USERNAME).getStatusCode().value()).isEqualTo(200);
+
+        // Delete test user
+        restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).delete("http://localhost:{port}/user/{username}", port, TEST_USERNAME);
+    }
+
+    @Test
+    void createUsers_ExpectingInvalidRowsForOversizedFields() {
+        // Install a batch with a valid user, an oversized username and an oversized authority
+        UserDTO[] userDTOs = new UserDTO[]{
+                new UserDTO(TEST_USERNAME, TEST_PASSWORD, true, USER_ROLES),
+                new UserDTO("u".repeat(51), TEST_PASSWORD, true, USER_ROLES),
+                new UserDTO(TEST_USERNAME + "_authority", TEST_PASSWORD, true, new String[]{"A".repeat(46)})};
+        ResponseEntity<UserBatchResultDTO[]> responseEntity = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).postForEntity("http://localhost:{port}/users/batch", userDTOs, UserBatchResultDTO[].class, port);
+
+        // Verify the oversized rows are reported and the valid user was created
+        assertThat(responseEntity.getStatusCode().value()).isEqualTo(200);
+        UserBatchResultDTO[] results = responseEntity.getBody();
+        assertThat(results).hasSize(3);
+        assertThat(results[0].status).isEqualTo(UserBatchResultDTO.CREATED);
+        assertThat(results[1].status).isEqualTo(UserBatchResultDTO.INVALID);
+        assertThat(results[1].message).isEqualTo("Username cannot be longer than 50 characters");
+        assertThat(results[2].status).isEqualTo(UserBatchResultDTO.INVALID);
+        assertThat(results[2].message).isEqualTo("Authority cannot be longer than 45 characters");
+
+        // Delete test user
+        restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).delete("http://localhost:{port}/user/{username}", port, TEST_USERNAME);
+    }
+
+    @Test
+    void createUsers_ExpectingStatusCode400ForMalformedFirstToken() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        ResponseEntity<String> responseEntity = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).postForEntity("http://localhost:{port}/users/batch", new HttpEntity<>("not json", headers), String.class, port);
+
+        // Verify response
+        assertThat(responseEntity.getStatusCode().value()).isEqualTo(400);
+        assertThat(responseEntity.getBody()).isEqualTo("Users must be a JSON array");
+    }
+
+    @Test
+    void patchUser_ExpectingStatusCode404WithoutHashing() {
+        long encoded = meterRegistry.get("password.hashing.duration").tag("operation", "encode").timer().count();
+
+        // Patch the password of a user that does not exist
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/merge-patch+json"));
+        ResponseEntity<String> responseEntity = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).exchange("http://localhost:{port}/user/{username}", HttpMethod.PATCH, new HttpEntity<>("{\"password\":\"" + TEST_PASSWORD + "\"}", headers), String.class, port, TEST_USERNAME + "_invalid");
+
+        // Verify response and that no password was hashed
+        assertThat(responseEntity.getStatusCode().value()).isEqualTo(404);
+        assertThat(meterRegistry.get("password.hashing.duration").tag("operation", "encode").timer().count()).isEqualTo(encoded);
+    }
+
+    @Test
+    void exportUsers() {
+        // Export all users as NDJSON
+        ResponseEntity<String> responseEntity = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).getForEntity("http://localhost:{port}/users/export", String.class, port);
+
+        // Verify seeded users are exported with masked passwords
+        assertThat(responseEntity.getStatusCode().value()).isEqualTo(200);
+        assertThat(responseEntity.getBody()).contains("\"username\":\"" + ADMIN_USERNAME + "\"").contains("\"password\":\"********\"").doesNotContain("{bcrypt}");
+
+        // Verify every line is exactly one JSON object terminated by a newline
+        assertThat(responseEntity.getBody()).endsWith("\n");
+        String[] lines = responseEntity.getBody().split("\n", -1);
+        assertThat(lines[lines.length - 1]).isEmpty();
+        for (int i = 0; i < lines.length - 1; i++) {
+            assertThat(lines[i]).startsWith("{\"username\":").endsWith("}");
+        }
+        assertThat(lines).contains("{\"username\":\"" + ADMIN_USERNAME + "\",\"password\":\"********\",\"enabled\":true,\"authorities\":[\"ADMIN\",\"USER\"]}");
+    }
+
+    private String storedPassword(String username) {
+        return new JdbcTemplate(dataSource).queryForObject("select password from users where username = ?", String.class, username);
+    }
 }
@@ -0,0 +1,101 @@
+package com.example.springwebapi;
+
+import com.example.springwebapi.diagnostics.SqlStatementCounter;
+import com.example.springwebapi.dtos.UserProfileDTO;
+import com.example.springwebapi.dtos.UserDTO;
+import com.example.springwebapi.entities.Person;
+import com.example.springwebapi.repositories.PersonRepository;
+import com.example.springwebapi.repositories.UserProfileJdbcRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class UserProfileControllerTests {
+    private static final String ADMIN_USERNAME = "admin";
+    private static final String ADMIN_PASSWORD = "password";
+    private static final String TEST_USERNAME = "profile_test";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private UserProfileJdbcRepository userProfileJdbcRepository;
+
+    @AfterEach
+    void tearDown() {
+        restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).delete("http://localhost:{port}/user/{username}", port, TEST_USERNAME);
+        personRepository.deleteAll(StreamSupport.stream(personRepository.findAll().spliterator(), false).filter(person -> TEST_USERNAME.equals(person.getUsername())).toList());
+    }
+
+    @Test
+    void getProfile() {
+        // Install test user and person
+        UserDTO userDTO = new UserDTO(TEST_USERNAME, "password", true, new String[]{"ADMIN", "USER"});
+        restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).postForObject("http://localhost:{port}/user", userDTO, UserDTO.class, port);
+        Person person = new Person();
+        person.setUsername(TEST_USERNAME);
+        person.setFirstName("Profile");
+        person.setLastName("Person");
+        person = personRepository.save(person);
+
+        // Get profile by username
+        UserProfileDTO userProfileDTO = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).getForObject("http://localhost:{port}/profiles/{username}", UserProfileDTO.class, port, TEST_USERNAME);
+        ResponseEntity<String> missing = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).getForEntity("http://localhost:{port}/profiles/{username}", String.class, port, TEST_USERNAME + "_invalid");
+
+        // Verify profile data
+        assertThat(userProfileDTO.username).isEqualTo(TEST_USERNAME);
+        assertThat(userProfileDTO.enabled).isTrue();
+        assertThat(userProfileDTO.authorities).containsExactlyInAnyOrder("ADMIN", "USER");
+        assertThat(userProfileDTO.personId).isEqualTo(person.getId());
+        assertThat(userProfileDTO.firstName).isEqualTo("Profile");
+        assertThat(userProfileDTO.lastName).isEqualTo("Person");
+        assertThat(missing.getStatusCode().value()).isEqualTo(404);
+    }
+
+    @Test
+    void lookupProfiles() {
+        // Install test user without a person
+        UserDTO userDTO = new UserDTO(TEST_USERNAME, "password", false, new String[]{"USER"});
+        restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).postForObject("http://localhost:{port}/user", userDTO, UserDTO.class, port);
+
+        // Look up known, unknown and duplicate usernames
+        String[] usernames = new String[]{TEST_USERNAME, "unknown", ADMIN_USERNAME, TEST_USERNAME};
+        UserProfileDTO[] profiles = restTemplate.withBasicAuth(ADMIN_USERNAME, ADMIN_PASSWORD).postForObject("http://localhost:{port}/profiles/lookup", usernames, UserProfileDTO[].class, port);
+
+        // Verify profiles in request order
+        assertThat(profiles).extracting(profile -> profile.username).containsExactly(TEST_USERNAME, ADMIN_USERNAME);
+        assertThat(profiles[0].enabled).isFalse();
+        assertThat(profiles[0].authorities).containsExactly("USER");
+        assertThat(profiles[0].personId).isNull();
+        assertThat(profiles[1].authorities).contains("ADMIN");
+    }
+
+    @Test
+    void findProfiles_UsesSingleStatement() {
+        // Look up several profiles with statement counting
+        SqlStatementCounter.start();
+        Map<String, UserProfileDTO> profiles = userProfileJdbcRepository.findAll(List.of(ADMIN_USERNAME, "user", "unknown"));
+        long statements = SqlStatementCounter.stop();
+
+        // Verify a single query served the batch
+        assertThat(profiles).containsOnlyKeys(ADMIN_USERNAME, "user");
+        assertThat(statements).isEqualTo(1);
+    }
+}
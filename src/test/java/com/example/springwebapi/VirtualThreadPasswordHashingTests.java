@@ -0,0 +1,15 @@
+package com.example.springwebapi;
+
+import com.example.springwebapi.security.SemaphorePasswordEncoder;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+class VirtualThreadPasswordHashingTests extends AbstractPasswordHashingTests {
+    @Test
+    void passwordEncoder_ExpectingSemaphorePasswordEncoder() {
+        assertThat(passwordEncoder).isInstanceOf(SemaphorePasswordEncoder.class);
+    }
+}